@@ -0,0 +1,484 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас Benchmarks
+ * Мікробенчмарки гарячих шляхів рушія та ШІ. Для кожного випадку виконується розігрів,
+ * потім кілька вимірювальних ітерацій, і друкується кількість операцій за секунду
+ * та кількість байтів, виділених на одну операцію, і швидкість виділення пам'яті.
+ * Пам'ять вимірюється тим самим лічильником потоку, що й профайлер gc у JMH.
+ * JMH тут не використовується, бо він не приймає класи з пакета за замовчуванням, у якому живе гра.
+ *
+ * Запуск: mvn -B -P bench compile exec:java -Dexec.args="[фільтр] [результат.csv] [базовий.csv]"
+ * або java -cp target/classes Benchmarks [фільтр] [результат.csv] [базовий.csv]
+ */
+public class Benchmarks {
+    /**
+     * Тривалість розігріву кожного випадку в мілісекундах.
+     */
+    private static final long WARMUP_MILLIS = Long.getLong("bench.warmup", 2000);
+    /**
+     * Тривалість однієї вимірювальної ітерації в мілісекундах.
+     */
+    private static final long ITERATION_MILLIS = Long.getLong("bench.iteration", 1000);
+    /**
+     * Кількість вимірювальних ітерацій.
+     */
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    /**
+     * Лічильник виділеної пам'яті потоку.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Один випадок вимірювання. prepare не входить у вимірюваний час, run входить.
+     */
+    private abstract static class Case {
+        /**
+         * Назва випадку у звіті.
+         */
+        private final String name;
+
+        /**
+         * Створює випадок вимірювання.
+         *
+         * @param name Назва випадку у звіті.
+         */
+        Case(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Готує стан перед наступним викликом run. Не вимірюється.
+         */
+        void prepare() {}
+
+        /**
+         * Виконує вимірювану роботу.
+         *
+         * @return Кількість виконаних операцій.
+         */
+        abstract int run();
+    }
+
+    /**
+     * Результат вимірювання одного випадку.
+     */
+    private static class Result {
+        /**
+         * Назва випадку.
+         */
+        private String name;
+        /**
+         * Операцій за секунду.
+         */
+        private double opsPerSecond;
+        /**
+         * Байтів, виділених на одну операцію.
+         */
+        private double bytesPerOp;
+        /**
+         * Мегабайтів, виділених за секунду вимірюваного часу.
+         */
+        private double allocMbPerSecond;
+    }
+
+    /**
+     * Значення, які повертають випадки, щоб JIT не викинув вимірювану роботу.
+     */
+    private static long sink;
+
+    /**
+     * Запускає всі випадки, назва яких містить фільтр, і друкує звіт.
+     *
+     * @param args Необов'язкові: фільтр назв, файл для результатів у CSV, базовий CSV для порівняння.
+     * @throws IOException Якщо не вдалося прочитати або записати CSV.
+     */
+    public static void main(String[] args) throws IOException {
+        String filter = args.length > 0 ? args[0] : "";
+        Map<String, Double> baseline = args.length > 2 ? readCsv(Paths.get(args[2])) : Collections.emptyMap();
+        List<Result> results = new ArrayList<>();
+        System.out.printf("%-48s %14s %12s %12s %10s%n", "Випадок", "оп/с", "Б/оп", "МБ/с", "зміна");
+        for(Case benchCase : createCases()) {
+            if(!benchCase.name.contains(filter)) continue;
+            Result result = measure(benchCase);
+            results.add(result);
+            Double base = baseline.get(result.name);
+            String change = base == null ? "" : String.format("%+.1f%%", (result.opsPerSecond / base - 1) * 100);
+            System.out.printf("%-48s %14.0f %12.1f %12.1f %10s%n",
+                    result.name, result.opsPerSecond, result.bytesPerOp, result.allocMbPerSecond, change);
+        }
+        if(args.length > 1) writeCsv(Paths.get(args[1]), results);
+        if(sink == 42) System.out.println();
+    }
+
+    /**
+     * Створює всі випадки вимірювання.
+     *
+     * @return Список випадків.
+     */
+    private static List<Case> createCases() {
+        List<Case> cases = new ArrayList<>();
+        cases.add(makeShipsCase());
+        GameRules touching = new GameRules(10, 10, GameRules.CLASSIC.getFleet(), true);
+        GameRules dense = new GameRules(8, 8, GameRules.CLASSIC.getFleet(), false);
+        for(FleetGenerator.Mode mode : FleetGenerator.Mode.values()) {
+            cases.add(fleetGeneratorCase("", GameRules.CLASSIC, mode));
+            cases.add(fleetGeneratorCase(" touching", touching, mode));
+            cases.add(fleetGeneratorCase(" 8x8", dense, mode));
+        }
+        cases.add(validPlacementCase());
+        cases.add(markCoordCase());
+        cases.add(fullGameCase("SimpleAI.selectMove", SimpleAI::new));
+        cases.add(fullGameCase("ProbabilityAI.selectMove", ProbabilityAI::new));
+        cases.add(fullGameCase("MonteCarloAI.selectMove", rules -> new MonteCarloAI(rules, 60_000, 2000, 1)));
+        boolean[] flags = {false, true};
+        for(boolean preferLine : flags) {
+            for(boolean maximiseAdjacent : flags) {
+                cases.add(smartAIHuntCase(preferLine, maximiseAdjacent));
+                cases.add(smartAITargetCase(preferLine, maximiseAdjacent));
+            }
+        }
+        return cases;
+    }
+
+    /**
+     * Вимірює GameGrid.makeShips для класичного флоту.
+     *
+     * @return Випадок вимірювання.
+     */
+    private static Case makeShipsCase() {
+        GameGrid grid = new GameGrid();
+        return new Case("GameGrid.makeShips") {
+            @Override
+            int run() {
+                grid.makeShips();
+                return 1;
+            }
+        };
+    }
+
+    /**
+     * Вимірює FleetGenerator.generateBulk: одна операція - одна розстановка флоту в спільний буфер.
+     * Для щільного флоту 8x8 UNIFORM майже не приймає розстановок, тож вимірюється перехід до FAST.
+     *
+     * @param label Позначка правил у назві випадку.
+     * @param rules Правила гри з розміром сітки та складом флоту.
+     * @param mode Спосіб генерації.
+     * @return Випадок вимірювання.
+     */
+    private static Case fleetGeneratorCase(String label, GameRules rules, FleetGenerator.Mode mode) {
+        FleetGenerator generator = new FleetGenerator(rules, mode, 1);
+        int layouts = mode == FleetGenerator.Mode.FAST || rules.shipsMayTouch() ? 1000 : 10;
+        int[] buffer = new int[layouts * rules.getFleetSize()];
+        return new Case("FleetGenerator.generateBulk" + label + " " + mode) {
+            @Override
+            int run() {
+                generator.generateBulk(buffer, 0, layouts);
+                sink += buffer[buffer.length - 1];
+                return layouts;
+            }
+        };
+    }
+
+    /**
+     * Вимірює GameGrid.isValidShipPlacement для всіх позицій і орієнтацій трипалубного корабля на заповненій сітці.
+     *
+     * @return Випадок вимірювання.
+     */
+    private static Case validPlacementCase() {
+        GameGrid grid = fastGrid();
+        grid.makeShips();
+        GameRules rules = grid.getRules();
+        return new Case("GameGrid.isValidShipPlacement") {
+            @Override
+            int run() {
+                int valid = 0;
+                for(int y = 0; y < rules.getHeight(); y++) {
+                    for(int x = 0; x < rules.getWidth(); x++) {
+                        if(grid.isValidShipPlacement(x, y, 3, true)) valid++;
+                        if(grid.isValidShipPlacement(x, y, 3, false)) valid++;
+                    }
+                }
+                sink += valid;
+                return rules.getCellCount() * 2;
+            }
+        };
+    }
+
+    /**
+     * Вимірює GameGrid.markCoord: одна операція - один постріл у ще не обстріляну клітинку.
+     *
+     * @return Випадок вимірювання.
+     */
+    private static Case markCoordCase() {
+        GameGrid grid = fastGrid();
+        List<Coordinates> order = allCells(grid.getRules());
+        return new Case("GameGrid.markCoord") {
+            @Override
+            void prepare() {
+                grid.reset();
+                grid.makeShips();
+                Collections.shuffle(order);
+            }
+
+            @Override
+            int run() {
+                int hits = 0;
+                for(int i = 0; i < order.size(); i++) {
+                    if(grid.markCoord(order.get(i)).isHit()) hits++;
+                }
+                sink += hits;
+                return order.size();
+            }
+        };
+    }
+
+    /**
+     * Вимірює selectMove довільного ШІ разом з пострілом по сітці для всієї гри.
+     *
+     * @param name Назва випадку у звіті.
+     * @param factory Створює ШІ за правилами гри сітки.
+     * @return Випадок вимірювання.
+     */
+    private static Case fullGameCase(String name, Function<GameRules, BattleshipAI> factory) {
+        GameGrid grid = fastGrid();
+        BattleshipAI ai = factory.apply(grid.getRules());
+        return new Case(name) {
+            @Override
+            void prepare() {
+                grid.reset();
+                grid.makeShips();
+                ai.reset();
+            }
+
+            @Override
+            int run() {
+                int moves = 0;
+                while(!grid.allShipsDestroyed()) {
+                    fire(grid, ai);
+                    moves++;
+                }
+                return moves;
+            }
+        };
+    }
+
+    /**
+     * Вимірює SmartAI.selectMove у режимі пошуку: на сітці немає кораблів, тож ШІ жодного разу не переходить до добивання.
+     * Одна операція - вибір ходу разом з пострілом по сітці.
+     *
+     * @param preferLine Прапорець preferMovesFormingLine.
+     * @param maximiseAdjacent Прапорець maximiseAdjacentRandomisation.
+     * @return Випадок вимірювання.
+     */
+    private static Case smartAIHuntCase(boolean preferLine, boolean maximiseAdjacent) {
+        GameGrid grid = fastGrid();
+        BattleshipAI ai = new SmartAI(grid.getRules(), preferLine, maximiseAdjacent);
+        int moves = grid.getRules().getCellCount() / 2;
+        return new Case("SmartAI.selectMove hunt " + flagsName(preferLine, maximiseAdjacent)) {
+            @Override
+            void prepare() {
+                grid.reset();
+                ai.reset();
+            }
+
+            @Override
+            int run() {
+                for(int i = 0; i < moves; i++) {
+                    fire(grid, ai);
+                }
+                return moves;
+            }
+        };
+    }
+
+    /**
+     * Вимірює SmartAI.selectMove у режимі добивання: підготовка грає до першого влучення в багатопалубний корабель,
+     * вимірюються ходи до його знищення. Одна операція - вибір ходу разом з пострілом по сітці.
+     *
+     * @param preferLine Прапорець preferMovesFormingLine.
+     * @param maximiseAdjacent Прапорець maximiseAdjacentRandomisation.
+     * @return Випадок вимірювання.
+     */
+    private static Case smartAITargetCase(boolean preferLine, boolean maximiseAdjacent) {
+        GameGrid grid = fastGrid();
+        BattleshipAI ai = new SmartAI(grid.getRules(), preferLine, maximiseAdjacent);
+        return new Case("SmartAI.selectMove target " + flagsName(preferLine, maximiseAdjacent)) {
+            @Override
+            void prepare() {
+                GameGrid.ShotResult result;
+                do {
+                    grid.reset();
+                    grid.makeShips();
+                    ai.reset();
+                    do {
+                        result = fire(grid, ai);
+                    } while(result == GameGrid.ShotResult.MISS);
+                } while(result != GameGrid.ShotResult.HIT);
+            }
+
+            @Override
+            int run() {
+                int moves = 0;
+                GameGrid.ShotResult result;
+                do {
+                    result = fire(grid, ai);
+                    moves++;
+                } while(result != GameGrid.ShotResult.SUNK && result != GameGrid.ShotResult.FLEET_DESTROYED);
+                return moves;
+            }
+        };
+    }
+
+    /**
+     * Виконує розігрів і вимірювальні ітерації одного випадку.
+     *
+     * @param benchCase Випадок вимірювання.
+     * @return Усереднений результат усіх ітерацій.
+     */
+    private static Result measure(Case benchCase) {
+        runFor(benchCase, WARMUP_MILLIS);
+        long totalOps = 0;
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for(int i = 0; i < ITERATIONS; i++) {
+            long[] iteration = runFor(benchCase, ITERATION_MILLIS);
+            totalOps += iteration[0];
+            totalNanos += iteration[1];
+            totalBytes += iteration[2];
+        }
+        Result result = new Result();
+        result.name = benchCase.name;
+        result.opsPerSecond = totalOps / (totalNanos / 1e9);
+        result.bytesPerOp = (double) totalBytes / totalOps;
+        result.allocMbPerSecond = totalBytes / (totalNanos / 1e9) / (1024 * 1024);
+        return result;
+    }
+
+    /**
+     * Повторює випадок, доки сумарний вимірюваний час не досягне заданого.
+     *
+     * @param benchCase Випадок вимірювання.
+     * @param millis Вимірюваний час у мілісекундах.
+     * @return Кількість операцій, наносекунди виконання run і байти, виділені в run.
+     */
+    private static long[] runFor(Case benchCase, long millis) {
+        long thread = Thread.currentThread().getId();
+        long budget = millis * 1_000_000;
+        long ops = 0;
+        long nanos = 0;
+        long bytes = 0;
+        while(nanos < budget) {
+            benchCase.prepare();
+            long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            ops += benchCase.run();
+            nanos += System.nanoTime() - start;
+            bytes += THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        }
+        return new long[] {ops, nanos, bytes};
+    }
+
+    /**
+     * Стріляє по сітці в клітинку, яку вибрав ШІ, і передає ШІ результат пострілу.
+     *
+     * @param grid Сітка, яку атакує ШІ.
+     * @param ai ШІ.
+     * @return Результат пострілу.
+     */
+    private static GameGrid.ShotResult fire(GameGrid grid, BattleshipAI ai) {
+        int target = ai.selectCell();
+        GameGrid.ShotResult result = grid.markCell(target);
+        ai.observe(ShotOutcome.of(grid, target, result));
+        return result;
+    }
+
+    /**
+     * Створює класичну сітку зі швидкою генерацією розстановок, щоб підготовка випадків, яким байдужий
+     * розподіл розстановок, не займала більшість часу вимірювання.
+     *
+     * @return Нова сітка.
+     */
+    private static GameGrid fastGrid() {
+        GameGrid grid = new GameGrid();
+        grid.setFleetMode(FleetGenerator.Mode.FAST);
+        return grid;
+    }
+
+    /**
+     * Створює список усіх клітинок сітки.
+     *
+     * @param rules Правила з розміром сітки.
+     * @return Список усіх позицій.
+     */
+    private static List<Coordinates> allCells(GameRules rules) {
+        List<Coordinates> cells = new ArrayList<>(rules.getCellCount());
+        for(int y = 0; y < rules.getHeight(); y++) {
+            for(int x = 0; x < rules.getWidth(); x++) {
+                cells.add(Coordinates.of(x, y));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Отримує коротку назву комбінації прапорців SmartAI.
+     *
+     * @param preferLine Прапорець preferMovesFormingLine.
+     * @param maximiseAdjacent Прапорець maximiseAdjacentRandomisation.
+     * @return Рядок на зразок line=true,adj=false.
+     */
+    private static String flagsName(boolean preferLine, boolean maximiseAdjacent) {
+        return "line=" + preferLine + ",adj=" + maximiseAdjacent;
+    }
+
+    /**
+     * Записує результати у CSV, щоб потім порівняти з ними наступний запуск.
+     *
+     * @param path Шлях до файлу.
+     * @param results Результати вимірювання.
+     * @throws IOException Якщо не вдалося записати файл.
+     */
+    private static void writeCsv(Path path, List<Result> results) throws IOException {
+        try(PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            writer.println("case;ops_per_second;bytes_per_op;alloc_mb_per_second");
+            for(Result result : results) {
+                writer.printf(Locale.ROOT, "%s;%.1f;%.2f;%.2f%n", result.name, result.opsPerSecond, result.bytesPerOp, result.allocMbPerSecond);
+            }
+        }
+    }
+
+    /**
+     * Читає операції за секунду з раніше записаного CSV.
+     *
+     * @param path Шлях до файлу.
+     * @return Операції за секунду за назвою випадку.
+     * @throws IOException Якщо не вдалося прочитати файл.
+     */
+    private static Map<String, Double> readCsv(Path path) throws IOException {
+        Map<String, Double> baseline = new HashMap<>();
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for(int i = 1; i < lines.size(); i++) {
+            String[] columns = lines.get(i).split(";");
+            baseline.put(columns[0], Double.parseDouble(columns[1]));
+        }
+        return baseline;
+    }
+}
@@ -0,0 +1,144 @@
+import java.util.Random;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас AdjacencyBuckets
+ * Індекс необстріляних клітинок, згрупованих за кількістю необстріляних сусідів зліва, справа, зверху і знизу (0-4).
+ * Кожна група - щільний масив із позицією кожної клітинки в ньому, тож постріл оновлює індекс за O(1):
+ * клітинка виходить зі своєї групи, а кожен її необстріляний сусід переходить на групу нижче.
+ * Вибір клітинки з найбільшою кількістю необстріляних сусідів теж O(1).
+ */
+public class AdjacencyBuckets {
+    /**
+     * Найбільша кількість сусідів клітинки.
+     */
+    private static final int MAX_NEIGHBOURS = 4;
+    /**
+     * Спільна таблиця сусідів клітинок для розміру сітки.
+     */
+    private final NeighbourTable neighbours;
+    /**
+     * Кількість клітинок сітки.
+     */
+    private final int cellCount;
+    /**
+     * Клітинки кожної групи на позиціях [0, sizes[k]).
+     */
+    private final int[][] members;
+    /**
+     * Кількість клітинок у кожній групі.
+     */
+    private final int[] sizes;
+    /**
+     * Група кожної клітинки або -1, якщо по клітинці вже стріляли.
+     */
+    private final int[] bucketOf;
+    /**
+     * Позиція кожної клітинки в її групі.
+     */
+    private final int[] positions;
+
+    /**
+     * Створює індекс, у якому всі клітинки сітки ще не обстріляні.
+     *
+     * @param rules Правила гри з розміром сітки.
+     */
+    public AdjacencyBuckets(GameRules rules) {
+        neighbours = NeighbourTable.forRules(rules);
+        cellCount = rules.getCellCount();
+        members = new int[MAX_NEIGHBOURS + 1][cellCount];
+        sizes = new int[MAX_NEIGHBOURS + 1];
+        bucketOf = new int[cellCount];
+        positions = new int[cellCount];
+        reset();
+    }
+
+    /**
+     * Повертає всі клітинки до індексу як необстріляні.
+     */
+    public void reset() {
+        for(int k = 0; k <= MAX_NEIGHBOURS; k++) {
+            sizes[k] = 0;
+        }
+        for(int cell = 0; cell < cellCount; cell++) {
+            add(cell, neighbours.getOrthogonalCount(cell));
+        }
+    }
+
+    /**
+     * Позначає клітинку обстріляною: вона виходить з індексу, а її необстріляні сусіди втрачають одного сусіда.
+     *
+     * @param cell Індекс клітинки.
+     */
+    public void remove(int cell) {
+        if(bucketOf[cell] < 0) return;
+        detach(cell);
+        bucketOf[cell] = -1;
+        for(int k = 0; k < neighbours.getOrthogonalCount(cell); k++) {
+            demote(neighbours.getOrthogonal(cell, k));
+        }
+    }
+
+    /**
+     * Отримує найбільшу кількість необстріляних сусідів серед необстріляних клітинок.
+     *
+     * @return Кількість від 0 до 4 або -1, якщо необстріляних клітинок немає.
+     */
+    public int getMaxNeighbours() {
+        for(int k = MAX_NEIGHBOURS; k >= 0; k--) {
+            if(sizes[k] > 0) return k;
+        }
+        return -1;
+    }
+
+    /**
+     * Вибирає рівноймовірно одну з необстріляних клітинок з найбільшою кількістю необстріляних сусідів.
+     *
+     * @param random Випадковий генератор.
+     * @return Індекс клітинки або -1, якщо необстріляних клітинок немає.
+     */
+    public int pickMostOpen(Random random) {
+        int k = getMaxNeighbours();
+        if(k < 0) return -1;
+        return members[k][random.nextInt(sizes[k])];
+    }
+
+    /**
+     * Переносить необстріляну клітинку на групу нижче.
+     *
+     * @param cell Індекс клітинки.
+     */
+    private void demote(int cell) {
+        int bucket = bucketOf[cell];
+        if(bucket <= 0) return;
+        detach(cell);
+        add(cell, bucket - 1);
+    }
+
+    /**
+     * Додає клітинку в кінець групи.
+     *
+     * @param cell Індекс клітинки.
+     * @param bucket Група.
+     */
+    private void add(int cell, int bucket) {
+        bucketOf[cell] = bucket;
+        positions[cell] = sizes[bucket];
+        members[bucket][sizes[bucket]++] = cell;
+    }
+
+    /**
+     * Видаляє клітинку з її групи, переносячи на її місце останню клітинку групи.
+     *
+     * @param cell Індекс клітинки.
+     */
+    private void detach(int cell) {
+        int bucket = bucketOf[cell];
+        int position = positions[cell];
+        int last = members[bucket][--sizes[bucket]];
+        members[bucket][position] = last;
+        positions[last] = position;
+    }
+}
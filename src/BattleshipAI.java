@@ -1,5 +1,4 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Random;
 
 /**
  * Морський бій
@@ -7,53 +6,162 @@ import java.util.List;
  *
  * Клас BattleShipAI:
  * Клас шаблону ШІ, забезпечує поведінку ШІ.
+ * ШІ не має доступу до сітки суперника: про результати своїх пострілів він дізнається лише через observe
+ * і сам веде картину сітки в ObservedBoard.
  */
 public class BattleshipAI {
     /**
-     * Посилання на сітку, якою керує гравець.
+     * Правила гри сітки, яку атакує ШІ.
      */
-    protected GameGrid gameGrid;
+    protected GameRules rules;
     /**
-     * Список усіх дійсних ходів.
+     * Набір усіх дійсних ходів як індексів клітинок.
      */
-    protected List<Coordinates> moves;
+    protected MovePool moves;
+    /**
+     * Власне випадкове посилання ШІ, щоб паралельні ігри не змагалися за спільний генератор.
+     */
+    protected Random random;
+    /**
+     * Що ШІ знає про сітку суперника з результатів своїх пострілів.
+     */
+    protected ObservedBoard observed;
+    /**
+     * Спільний кеш оцінок клітинок за картиною сітки або null, якщо ШІ рахує кожну оцінку сам.
+     */
+    private EvaluationCache evaluationCache;
 
     /**
-     * Створює базові налаштування для ШІ, встановлюючи посилання на сітку гравця,
+     * Створює базові налаштування для ШІ за правилами гри сітки, яку він атакує,
      * і створює список усіх дійсних ходів.
      *
-     * @param gameGrid Посилання на сітку, якою керує гравець.
+     * @param rules Правила гри сітки, яку атакує ШІ.
      */
-    public BattleshipAI(GameGrid gameGrid) {
-        this.gameGrid = gameGrid;
-        createMoveList();
+    public BattleshipAI(GameRules rules) {
+        this.rules = rules;
+        random = new Random();
+        moves = new MovePool(rules.getCellCount());
+        observed = new ObservedBoard(rules);
     }
 
     /**
-     * За умовчанням повертає Coordinates.ZERO.
+     * Вибирає хід як позицію на сітці для коду інтерфейсу.
      *
      * @return Позиція, яка була обрана як місце для атаки.
      */
     public Coordinates selectMove() {
-        return Coordinates.ZERO;
+        return toCoordinates(selectCell());
     }
 
     /**
-     * Відтворює дійсний список переміщень.
+     * Вибирає хід як індекс клітинки. За умовчанням повертає клітинку 0.
+     * Нащадки перевизначають цей метод, а не selectMove, щоб хід не створював об'єктів.
+     *
+     * @return Індекс клітинки y * ширина + x, яка була обрана як місце для атаки.
+     */
+    public int selectCell() {
+        return 0;
+    }
+
+    /**
+     * Повертає всі клітинки сітки до набору дійсних ходів.
      */
     public void reset() {
-        createMoveList();
+        moves.reset();
+        observed.reset();
+    }
+
+    /**
+     * Враховує запакований результат пострілу.
+     *
+     * @param outcome Запис ShotOutcome.
+     */
+    public final void observe(long outcome) {
+        observe(ShotOutcome.cell(outcome), ShotOutcome.result(outcome), ShotOutcome.sunkLength(outcome));
+    }
+
+    /**
+     * Враховує результат пострілу: клітинка виходить з дійсних ходів, а результат записується в картину сітки.
+     * Нащадки, що ведуть власний стан, мають викликати цей метод. Повторний постріл ALREADY_SHOT пропускається.
+     *
+     * @param cell Індекс клітинки пострілу.
+     * @param result Результат пострілу.
+     * @param sunkLength Кількість палуб знищеного корабля або 0, якщо корабель не знищено.
+     */
+    public void observe(int cell, GameGrid.ShotResult result, int sunkLength) {
+        if(result == GameGrid.ShotResult.ALREADY_SHOT) return;
+        moves.remove(cell);
+        observed.record(cell, result, sunkLength);
     }
 
     /**
-     * Створює дійсний список ходів шляхом заповнення списку позиціями.
+     * Підключає кеш оцінок клітинок. Один кеш можна ділити між ШІ одного типу з однаковими правилами,
+     * зокрема між паралельними іграми.
+     *
+     * @param evaluationCache Кеш оцінок або null, щоб рахувати кожну оцінку заново.
      */
-    private void createMoveList() {
-        moves = new ArrayList<>();
-        for(int x = 0; x < GameGrid.GRID_WIDTH; x++) {
-            for(int y = 0; y < GameGrid.GRID_HEIGHT; y++) {
-                moves.add(new Coordinates(x,y));
-            }
+    public void setEvaluationCache(EvaluationCache evaluationCache) {
+        this.evaluationCache = evaluationCache;
+    }
+
+    /**
+     * Отримує кеш оцінок клітинок.
+     *
+     * @return Кеш оцінок або null, якщо його не підключено.
+     */
+    public EvaluationCache getEvaluationCache() {
+        return evaluationCache;
+    }
+
+    /**
+     * Отримує оцінку кожної клітинки для поточної картини сітки. Якщо підключено кеш і в ньому є оцінка
+     * для такої самої картини і флоту на плаву, повертає її, інакше рахує оцінку в buffer через evaluate
+     * і записує її в кеш. Картини з більшою кількістю пострілів, ніж кешує кеш, завжди рахуються заново.
+     *
+     * @param buffer Масив для оцінки на кожну клітинку сітки.
+     * @return Оцінка з кешу, яку не можна змінювати, або buffer.
+     */
+    protected final int[] cachedEvaluation(int[] buffer) {
+        if(evaluationCache == null || observed.getShotCount() > evaluationCache.getMaxShots()) {
+            evaluate(buffer);
+            return buffer;
         }
+        long stateHash = observed.getStateHash();
+        long fleetSignature = observed.getFleetSignature();
+        int[] cached = evaluationCache.get(stateHash, fleetSignature);
+        if(cached != null) return cached;
+        if(evaluate(buffer)) evaluationCache.put(stateHash, fleetSignature, buffer);
+        return buffer;
+    }
+
+    /**
+     * Рахує оцінку кожної клітинки для поточної картини сітки. За умовчанням нічого не рахує.
+     * Нащадки, що вибирають хід за оцінкою клітинок, перевизначають цей метод і отримують оцінку через cachedEvaluation.
+     *
+     * @param evaluation Масив для оцінки на кожну клітинку сітки.
+     * @return True, якщо оцінка повна і її можна записати в кеш.
+     */
+    protected boolean evaluate(int[] evaluation) {
+        return false;
+    }
+
+    /**
+     * Отримує індекс клітинки для позиції.
+     *
+     * @param pos Позиція на сітці.
+     * @return Індекс клітинки y * ширина + x.
+     */
+    protected int cellIndex(Coordinates pos) {
+        return pos.toCell(rules.getWidth());
+    }
+
+    /**
+     * Отримує позицію для індексу клітинки.
+     *
+     * @param cell Індекс клітинки.
+     * @return Незмінна позиція на сітці.
+     */
+    protected Coordinates toCoordinates(int cell) {
+        return Coordinates.ofCell(cell, rules.getWidth());
     }
 }
\ No newline at end of file
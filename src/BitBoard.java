@@ -0,0 +1,242 @@
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас BitBoard
+ * Компактний шар клітинок сітки, де кожна клітинка займає один біт.
+ * Індекс клітинки дорівнює y * ширина + x, тож для сітки 10x10 вистачає двох long.
+ */
+public class BitBoard {
+    /**
+     * Кількість бітів в одному слові.
+     */
+    private static final int WORD_BITS = 64;
+    /**
+     * Слова, в яких зберігаються біти клітинок.
+     */
+    private final long[] words;
+    /**
+     * Кількість клітинок у шарі.
+     */
+    private final int size;
+
+    /**
+     * Створює порожній шар для вказаної кількості клітинок.
+     *
+     * @param size Кількість клітинок у шарі.
+     */
+    public BitBoard(int size) {
+        this.size = size;
+        words = new long[(size + WORD_BITS - 1) / WORD_BITS];
+    }
+
+    /**
+     * Копіює конструктор, щоб створити новий шар з тими самими бітами.
+     *
+     * @param other Шар для копіювання.
+     */
+    public BitBoard(BitBoard other) {
+        this.size = other.size;
+        this.words = other.words.clone();
+    }
+
+    /**
+     * Отримує кількість клітинок у шарі.
+     *
+     * @return Кількість клітинок у шарі.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Перевіряє, чи встановлено біт клітинки.
+     *
+     * @param cell Індекс клітинки.
+     * @return True, якщо біт встановлено.
+     */
+    public boolean get(int cell) {
+        return (words[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Встановлює біт клітинки.
+     *
+     * @param cell Індекс клітинки.
+     */
+    public void set(int cell) {
+        words[cell >>> 6] |= 1L << cell;
+    }
+
+    /**
+     * Встановлює всі біти в діапазоні [from, to).
+     *
+     * @param from Перший індекс діапазону.
+     * @param to Індекс після останнього в діапазоні.
+     */
+    public void setRange(int from, int to) {
+        if(from >= to) return;
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if(firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for(int i = firstWord + 1; i < lastWord; i++) {
+            words[i] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    /**
+     * Скидає біт клітинки.
+     *
+     * @param cell Індекс клітинки.
+     */
+    public void clear(int cell) {
+        words[cell >>> 6] &= ~(1L << cell);
+    }
+
+    /**
+     * Скидає всі біти шару.
+     */
+    public void clearAll() {
+        for(int i = 0; i < words.length; i++) {
+            words[i] = 0;
+        }
+    }
+
+    /**
+     * Отримує кількість слів у шарі.
+     *
+     * @return Кількість слів по 64 клітинки.
+     */
+    public int wordCount() {
+        return words.length;
+    }
+
+    /**
+     * Отримує слово з бітами 64 клітинок, починаючи з клітинки wordIndex * 64.
+     *
+     * @param wordIndex Індекс слова.
+     * @return Біти клітинок слова.
+     */
+    public long getWord(int wordIndex) {
+        return words[wordIndex];
+    }
+
+    /**
+     * Додає біти до слова шару.
+     *
+     * @param wordIndex Індекс слова.
+     * @param bits Біти клітинок, що встановлюються.
+     */
+    public void orWord(int wordIndex, long bits) {
+        words[wordIndex] |= bits;
+    }
+
+    /**
+     * Перевіряє, чи є хоча б одна спільна клітинка з іншим шаром.
+     *
+     * @param other Шар такого самого розміру.
+     * @return True, якщо шари перетинаються.
+     */
+    public boolean intersects(BitBoard other) {
+        for(int i = 0; i < words.length; i++) {
+            if((words[i] & other.words[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Перевіряє, чи всі клітинки іншого шару встановлені в цьому шарі.
+     *
+     * @param other Шар такого самого розміру.
+     * @return True, якщо other є підмножиною цього шару.
+     */
+    public boolean containsAll(BitBoard other) {
+        for(int i = 0; i < words.length; i++) {
+            if((other.words[i] & ~words[i]) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Додає до цього шару всі клітинки іншого шару.
+     *
+     * @param other Шар такого самого розміру.
+     */
+    public void or(BitBoard other) {
+        for(int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    /**
+     * Видаляє з цього шару всі клітинки іншого шару.
+     *
+     * @param other Шар такого самого розміру.
+     */
+    public void andNot(BitBoard other) {
+        for(int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    /**
+     * Замінює біти цього шару бітами іншого шару.
+     *
+     * @param other Шар такого самого розміру.
+     */
+    public void copyFrom(BitBoard other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    /**
+     * Рахує кількість встановлених клітинок.
+     *
+     * @return Кількість встановлених бітів.
+     */
+    public int cardinality() {
+        int count = 0;
+        for(long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Перевіряє, чи шар порожній.
+     *
+     * @return True, якщо жодного біта не встановлено.
+     */
+    public boolean isEmpty() {
+        for(long word : words) {
+            if(word != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Шукає наступну встановлену клітинку, починаючи з індексу from.
+     *
+     * @param from Індекс, з якого почати пошук.
+     * @return Індекс наступної встановленої клітинки або -1, якщо таких немає.
+     */
+    public int nextSetBit(int from) {
+        if(from >= size) return -1;
+        int wordIndex = from >>> 6;
+        long word = words[wordIndex] & (-1L << from);
+        while(true) {
+            if(word != 0) {
+                int cell = wordIndex * WORD_BITS + Long.numberOfTrailingZeros(word);
+                return cell < size ? cell : -1;
+            }
+            if(++wordIndex == words.length) return -1;
+            word = words[wordIndex];
+        }
+    }
+}
@@ -4,63 +4,102 @@
  *
  * Клас Coordinates
  * Використовується для представлення однієї позиції x,y.
+ * Позиції незмінні й створюються через of: позиції з невід'ємними координатами до CACHE_SIZE
+ * беруться зі спільного кешу, тож повторне звернення до тієї самої клітинки не створює об'єкта.
+ * Двигун і ШІ працюють з індексами клітинок y * ширина + x, а Coordinates використовуються лише на межі з інтерфейсом.
  */
-public class Coordinates {
+public final class Coordinates {
+    /**
+     * Розмір сторони квадрата координат, позиції в якому кешуються.
+     */
+    private static final int CACHE_SIZE = 128;
+    /**
+     * Кеш позицій, що заповнюється при першому зверненні. Позиції незмінні, тож їх можна
+     * безпечно передавати між потоками навіть без синхронізації кешу.
+     */
+    private static final Coordinates[] CACHE = new Coordinates[CACHE_SIZE * CACHE_SIZE];
     /**
      * Нульовий одиничний вектор.
      */
-    public static final Coordinates ZERO = new Coordinates(0,0);
+    public static final Coordinates ZERO = of(0, 0);
     /**
      * Одиничний вектор вправо.
      */
-    public static final Coordinates RIGHT = new Coordinates(1,0);
+    public static final Coordinates RIGHT = of(1, 0);
     /**
      * Одиничний вектор вгору.
      */
-    public static final Coordinates UP = new Coordinates(0,-1);
+    public static final Coordinates UP = of(0, -1);
     /**
      * Одиничний вектор вліво.
      */
-    public static final Coordinates LEFT = new Coordinates(-1,0);
+    public static final Coordinates LEFT = of(-1, 0);
     /**
      * Одиничний вектор вниз.
      */
-    public static final Coordinates DOWN = new Coordinates(0,1);
+    public static final Coordinates DOWN = of(0, 1);
     /**
      * координата X.
      */
-    public int x;
+    public final int x;
     /**
      * Координата Y.
      */
-    public int y;
+    public final int y;
     /**
      * Встановлює значення позиції.
      *
      * @param x координата X.
      * @param y координата Y.
      */
-    public Coordinates(int x, int y) {
+    private Coordinates(int x, int y) {
         this.x = x;
         this.y = y;
     }
     /**
-     * Копіює конструктор, щоб створити нову позицію, використовуючи значення в іншій.
+     * Отримує позицію з вказаними координатами, зі спільного кешу, якщо вона в ньому вміщується.
+     *
+     * @param x координата X.
+     * @param y координата Y.
+     * @return Незмінна позиція.
+     */
+    public static Coordinates of(int x, int y) {
+        if(x < 0 || y < 0 || x >= CACHE_SIZE || y >= CACHE_SIZE) return new Coordinates(x, y);
+        int index = y * CACHE_SIZE + x;
+        Coordinates cached = CACHE[index];
+        if(cached == null) {
+            cached = new Coordinates(x, y);
+            CACHE[index] = cached;
+        }
+        return cached;
+    }
+    /**
+     * Отримує позицію клітинки за її індексом.
      *
-     * @param coordsToCopy Позиція для копіювання значень.
+     * @param cell Індекс клітинки y * ширина + x.
+     * @param width Ширина сітки.
+     * @return Незмінна позиція.
      */
-    public Coordinates(Coordinates coordsToCopy) {
-        this.x = coordsToCopy.x;
-        this.y = coordsToCopy.y;
+    public static Coordinates ofCell(int cell, int width) {
+        return of(cell % width, cell / width);
     }
     /**
-     * Змінює позицію, додаючи значення з otherCoord.
+     * Отримує нову позицію, зсунуту на otherCoord.
      *
-     * @param otherCoord Інша позиція, щоб додати до поточної.
+     * @param otherCoord Зсув.
+     * @return Сума двох позицій.
      */
-    public void add(Coordinates otherCoord) {
-        this.x += otherCoord.x;
-        this.y += otherCoord.y;
+    public Coordinates plus(Coordinates otherCoord) {
+        return of(x + otherCoord.x, y + otherCoord.y);
+    }
+    /**
+     * Отримує індекс клітинки цієї позиції.
+     *
+     * @param width Ширина сітки.
+     * @return Індекс клітинки y * ширина + x.
+     */
+    public int toCell(int width) {
+        return y * width + x;
     }
     /**
      * Порівнює об’єкт Coordinates з іншим об’єктом.
@@ -76,6 +115,15 @@ public class Coordinates {
         Coordinates position = (Coordinates) o;
         return x == position.x && y == position.y;
     }
+    /**
+     * Обчислює хеш-код з x і y, узгоджений з equals.
+     *
+     * @return Хеш-код позиції.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * x + y;
+    }
     /**
      * Отримує рядкову версію Coordinates.
      *
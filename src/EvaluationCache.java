@@ -0,0 +1,271 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас EvaluationCache
+ * Обмежений кеш оцінок клітинок, які ШІ рахує для картини сітки, за ключем із хешу картини ObservedBoard
+ * і підпису флоту на плаву. Однакові картини, особливо на початку гри, повторюються в мільйонах ігор турніру,
+ * тож ШІ бере готову оцінку замість того, щоб рахувати її знову.
+ * Кеш розбитий на сегменти, кожен з яких - окремий LinkedHashMap у порядку звернень під власним замком,
+ * тож паралельні ігри рідко чекають одна одну, а при переповненні сегмента видаляється найдавніше використаний запис.
+ * Один кеш можна ділити лише між ШІ одного типу з однаковими правилами гри.
+ */
+public class EvaluationCache {
+    /**
+     * Кількість сегментів кешу.
+     */
+    private static final int SEGMENTS = 16;
+
+    /**
+     * Запис кешу: повний ключ і оцінка.
+     */
+    private static final class Entry {
+        /**
+         * Хеш картини сітки.
+         */
+        private final long stateHash;
+        /**
+         * Підпис флоту на плаву.
+         */
+        private final long fleetSignature;
+        /**
+         * Оцінка кожної клітинки.
+         */
+        private final int[] evaluation;
+
+        /**
+         * Створює запис кешу.
+         *
+         * @param stateHash Хеш картини сітки.
+         * @param fleetSignature Підпис флоту на плаву.
+         * @param evaluation Оцінка кожної клітинки, яку запис більше ні з ким не ділить.
+         */
+        private Entry(long stateHash, long fleetSignature, int[] evaluation) {
+            this.stateHash = stateHash;
+            this.fleetSignature = fleetSignature;
+            this.evaluation = evaluation;
+        }
+    }
+
+    /**
+     * Сегмент кешу, що видаляє найдавніше використаний запис при переповненні.
+     */
+    private static final class Segment extends LinkedHashMap<Long, Entry> {
+        /**
+         * Версія формату серіалізації.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * Найбільша кількість записів у сегменті.
+         */
+        private final int capacity;
+
+        /**
+         * Створює порожній сегмент.
+         *
+         * @param capacity Найбільша кількість записів у сегменті.
+         */
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        /**
+         * Видаляє найдавніше використаний запис, якщо сегмент переповнено.
+         *
+         * @param eldest Найдавніше використаний запис.
+         * @return True, якщо запис треба видалити.
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * Сегменти кешу.
+     */
+    private final Segment[] segments;
+    /**
+     * Найбільша кількість пострілів у картині, оцінку якої варто шукати і зберігати в кеші.
+     */
+    private final int maxShots;
+    /**
+     * Кількість знайдених оцінок.
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * Кількість оцінок, яких не було в кеші.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Створює порожній кеш для картин з будь-якою кількістю пострілів.
+     *
+     * @param capacity Найбільша кількість оцінок у кеші.
+     */
+    public EvaluationCache(int capacity) {
+        this(capacity, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Створює порожній кеш лише для картин із не більше ніж maxShots пострілами. Пізніші картини майже
+     * не повторюються між іграми, тож їхні оцінки лише витісняли б корисні записи і коштували б копіювання.
+     *
+     * @param capacity Найбільша кількість оцінок у кеші.
+     * @param maxShots Найбільша кількість пострілів у картині, оцінку якої варто кешувати.
+     */
+    public EvaluationCache(int capacity, int maxShots) {
+        if(capacity < SEGMENTS) {
+            throw new IllegalArgumentException("Місткість кешу має бути не меншою за " + SEGMENTS + ": " + capacity);
+        }
+        if(maxShots < 0) {
+            throw new IllegalArgumentException("Кількість пострілів не може бути від'ємною: " + maxShots);
+        }
+        this.maxShots = maxShots;
+        segments = new Segment[SEGMENTS];
+        for(int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity / SEGMENTS);
+        }
+    }
+
+    /**
+     * Отримує найбільшу кількість пострілів у картині, оцінку якої варто шукати і зберігати в кеші.
+     *
+     * @return Кількість пострілів.
+     */
+    public int getMaxShots() {
+        return maxShots;
+    }
+
+    /**
+     * Шукає оцінку картини сітки.
+     *
+     * @param stateHash Хеш картини сітки з ObservedBoard.getStateHash.
+     * @param fleetSignature Підпис флоту на плаву з ObservedBoard.getFleetSignature.
+     * @return Оцінка кожної клітинки, яку не можна змінювати, або null, якщо її немає в кеші.
+     */
+    public int[] get(long stateHash, long fleetSignature) {
+        long key = key(stateHash, fleetSignature);
+        Segment segment = segmentFor(key);
+        Entry entry;
+        synchronized(segment) {
+            entry = segment.get(key);
+        }
+        if(entry == null || entry.stateHash != stateHash || entry.fleetSignature != fleetSignature) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.evaluation;
+    }
+
+    /**
+     * Записує копію оцінки картини сітки.
+     *
+     * @param stateHash Хеш картини сітки з ObservedBoard.getStateHash.
+     * @param fleetSignature Підпис флоту на плаву з ObservedBoard.getFleetSignature.
+     * @param evaluation Оцінка кожної клітинки.
+     */
+    public void put(long stateHash, long fleetSignature, int[] evaluation) {
+        long key = key(stateHash, fleetSignature);
+        Entry entry = new Entry(stateHash, fleetSignature, evaluation.clone());
+        Segment segment = segmentFor(key);
+        synchronized(segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    /**
+     * Видаляє всі оцінки і скидає лічильники.
+     */
+    public void clear() {
+        for(Segment segment : segments) {
+            synchronized(segment) {
+                segment.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Отримує кількість оцінок у кеші.
+     *
+     * @return Кількість записів.
+     */
+    public int size() {
+        int size = 0;
+        for(Segment segment : segments) {
+            synchronized(segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Отримує кількість знайдених оцінок.
+     *
+     * @return Кількість влучень у кеш.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Отримує кількість оцінок, яких не було в кеші.
+     *
+     * @return Кількість промахів кешу.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Отримує частку знайдених оцінок серед усіх звернень.
+     *
+     * @return Значення від 0 до 1.
+     */
+    public double getHitRate() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Отримує рядок звіту з розміром і лічильниками кешу.
+     *
+     * @return Рядок з кількістю записів, влучень і промахів.
+     */
+    @Override
+    public String toString() {
+        return String.format("записів %d, влучень %d, промахів %d (%.1f%%)",
+                size(), getHits(), getMisses(), getHitRate() * 100);
+    }
+
+    /**
+     * Поєднує хеш картини і підпис флоту в ключ сегмента.
+     *
+     * @param stateHash Хеш картини сітки.
+     * @param fleetSignature Підпис флоту на плаву.
+     * @return Ключ запису.
+     */
+    private static long key(long stateHash, long fleetSignature) {
+        return stateHash ^ Long.rotateLeft(fleetSignature * 0xC2B2AE3D27D4EB4FL, 31);
+    }
+
+    /**
+     * Вибирає сегмент для ключа за його старшими бітами.
+     *
+     * @param key Ключ запису.
+     * @return Сегмент кешу.
+     */
+    private Segment segmentFor(long key) {
+        return segments[(int) (key >>> 60) & (SEGMENTS - 1)];
+    }
+}
@@ -0,0 +1,401 @@
+import java.util.SplittableRandom;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас FleetGenerator
+ * Генератор випадкових розстановок флоту за правилами гри з обмеженим найгіршим часом.
+ * Розстановка записується в масив int: для кожного корабля у порядку флоту з правил -
+ * номер його розміщення в PlacementTable для довжини цього корабля.
+ * Одна розстановка в найгіршому випадку коштує не більше ніж:
+ * спроби UNIFORM за поточним бюджетом (до maxUniformAttempts, кожна - до розміру флоту перевірок маски),
+ * MAX_RESTARTS спроб FAST (кожна - до розміру флоту, помноженого на кількість розміщень, перевірок маски)
+ * і MAX_SEARCH_STEPS перевірок повного перебору. Для класичного флоту це до 100000 спроб UNIFORM (близько 10 мс),
+ * 1000 спроб FAST (кілька мс) і 50 млн кроків перебору (близько 0,6 с), але дві останні межі
+ * досягаються лише для флотів, що ледве вміщуються або не вміщуються на сітку.
+ * Генератор не потокобезпечний: кожен потік має створювати власний.
+ */
+public class FleetGenerator {
+    /**
+     * Спосіб генерації розстановки.
+     * FAST: кораблі ставляться по черзі від найдовшого, кожен рівноймовірно серед місць, що залишилися.
+     * Швидко, але розподіл розстановок трохи залежить від порядку кораблів.
+     * UNIFORM: кожен корабель вибирає місце серед усіх розміщень незалежно, а розстановка з конфліктом
+     * відкидається повністю. Усі допустимі розстановки рівноймовірні, але генерація в сотні разів повільніша за FAST.
+     * Поки не прийнято UNIFORM_CALIBRATION_LAYOUTS розстановок, бюджет спроб на розстановку - maxUniformAttempts,
+     * далі - UNIFORM_BUDGET_FACTOR середніх кількостей спроб на прийняту розстановку, тож бюджет обернено
+     * пропорційний частці прийнятих спроб, а вичерпується він з імовірністю близько e^-20.
+     * Якщо бюджет вичерпано, розстановка будується FAST і рахується в getUniformFallbacks;
+     * якщо ж не прийнято жодної розстановки, UNIFORM для цього флоту безнадійний і далі одразу використовується FAST.
+     * Про такі розстановки повідомляє той, хто викликає генератор, за getUniformFallbacks.
+     */
+    public enum Mode {
+        FAST, UNIFORM
+    }
+
+    /**
+     * Найбільша кількість спроб UNIFORM на розстановку за замовчуванням.
+     */
+    public static final int DEFAULT_UNIFORM_ATTEMPTS = 100000;
+    /**
+     * Кількість прийнятих розстановок UNIFORM, після якої бюджет спроб рахується з їхньої середньої кількості.
+     */
+    private static final int UNIFORM_CALIBRATION_LAYOUTS = 16;
+    /**
+     * У скільки разів бюджет спроб UNIFORM перевищує середню кількість спроб на прийняту розстановку.
+     */
+    private static final int UNIFORM_BUDGET_FACTOR = 20;
+    /**
+     * Найменший бюджет спроб UNIFORM після калібрування.
+     */
+    private static final int MIN_UNIFORM_BUDGET = 64;
+    /**
+     * Кількість випадкових спроб поставити корабель у FAST, після якої перебираються всі його розміщення.
+     */
+    private static final int QUICK_PLACEMENT_TRIES = 8;
+    /**
+     * Кількість перезапусків FAST, після якої розстановка шукається повним перебором.
+     */
+    private static final int MAX_RESTARTS = 1000;
+    /**
+     * Найбільша кількість розміщень, що перевіряє повний перебір, перш ніж визнати, що розстановки немає.
+     */
+    private static final long MAX_SEARCH_STEPS = 50_000_000L;
+    /**
+     * Правила гри з розміром сітки та складом флоту.
+     */
+    private final GameRules rules;
+    /**
+     * Спосіб генерації.
+     */
+    private final Mode mode;
+    /**
+     * Найбільша кількість спроб UNIFORM на розстановку перед переходом до FAST.
+     */
+    private final int maxUniformAttempts;
+    /**
+     * Номери кораблів у порядку флоту з правил, відсортовані від найдовшого.
+     */
+    private final int[] order;
+    /**
+     * Розміщення кожного корабля в тому самому порядку, що й order.
+     */
+    private final PlacementTable.Placements[] tables;
+    /**
+     * Заборонені клітинки після розміщення перших k кораблів, для k від 0 до розміру флоту.
+     */
+    private final BitBoard[] forbidden;
+    /**
+     * Випадковий генератор.
+     */
+    private final SplittableRandom random;
+    /**
+     * Кількість розстановок, для яких UNIFORM не встиг і використано FAST.
+     */
+    private long uniformFallbacks;
+    /**
+     * Кількість усіх спроб UNIFORM.
+     */
+    private long uniformAttempts;
+    /**
+     * Кількість розстановок, прийнятих UNIFORM.
+     */
+    private long uniformLayouts;
+    /**
+     * Кількість перевірених розміщень у поточному повному переборі.
+     */
+    private long searchSteps;
+    /**
+     * False, якщо флот явно не вміщується на сітку за площею.
+     */
+    private final boolean fitsByArea;
+
+    /**
+     * Створює швидкий генератор з випадковим початковим значенням.
+     *
+     * @param rules Правила гри з розміром сітки та складом флоту.
+     */
+    public FleetGenerator(GameRules rules) {
+        this(rules, Mode.FAST, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Створює генератор.
+     *
+     * @param rules Правила гри з розміром сітки та складом флоту.
+     * @param mode Спосіб генерації.
+     * @param seed Початкове значення випадкового генератора.
+     */
+    public FleetGenerator(GameRules rules, Mode mode, long seed) {
+        this(rules, mode, seed, DEFAULT_UNIFORM_ATTEMPTS);
+    }
+
+    /**
+     * Створює генератор.
+     *
+     * @param rules Правила гри з розміром сітки та складом флоту.
+     * @param mode Спосіб генерації.
+     * @param seed Початкове значення випадкового генератора.
+     * @param maxUniformAttempts Найбільша кількість спроб UNIFORM на розстановку перед переходом до FAST.
+     */
+    public FleetGenerator(GameRules rules, Mode mode, long seed, int maxUniformAttempts) {
+        if(maxUniformAttempts < 1) {
+            throw new IllegalArgumentException("Кількість спроб UNIFORM має бути додатною: " + maxUniformAttempts);
+        }
+        this.rules = rules;
+        this.mode = mode;
+        this.maxUniformAttempts = maxUniformAttempts;
+        random = new SplittableRandom(seed);
+        int fleetSize = rules.getFleetSize();
+        order = new int[fleetSize];
+        for(int i = 0; i < fleetSize; i++) {
+            int j = i;
+            while(j > 0 && rules.getShipLength(order[j - 1]) < rules.getShipLength(i)) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        PlacementTable table = PlacementTable.forRules(rules);
+        tables = new PlacementTable.Placements[fleetSize];
+        forbidden = new BitBoard[fleetSize + 1];
+        for(int k = 0; k < fleetSize; k++) {
+            tables[k] = table.forLength(rules.getShipLength(order[k]));
+        }
+        for(int k = 0; k <= fleetSize; k++) {
+            forbidden[k] = new BitBoard(rules.getCellCount());
+        }
+        fitsByArea = fitsByArea(rules);
+    }
+
+    /**
+     * Швидка необхідна умова, що флот вміщується на сітку.
+     * Кораблі, що можуть торкатися, разом займають не більше клітинок, ніж є на сітці.
+     * Кораблі, що не торкаються, разом із полем в одну клітинку праворуч і знизу займають прямокутники
+     * (довжина + 1) x 2, що не перетинаються на сітці, розширеній на одну клітинку в кожному напрямку.
+     *
+     * @param rules Правила гри з розміром сітки та складом флоту.
+     * @return False, якщо розстановки точно немає.
+     */
+    private static boolean fitsByArea(GameRules rules) {
+        long area = 0;
+        for(int i = 0; i < rules.getFleetSize(); i++) {
+            int length = rules.getShipLength(i);
+            area += rules.shipsMayTouch() ? length : 2L * (length + 1);
+        }
+        long available = rules.shipsMayTouch() ? rules.getCellCount()
+                : (long) (rules.getWidth() + 1) * (rules.getHeight() + 1);
+        return area <= available;
+    }
+
+    /**
+     * Отримує правила гри генератора.
+     *
+     * @return Правила гри.
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Отримує спосіб генерації.
+     *
+     * @return Спосіб генерації.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Отримує кількість розстановок, для яких UNIFORM не встиг і використано FAST.
+     *
+     * @return Кількість переходів до FAST.
+     */
+    public long getUniformFallbacks() {
+        return uniformFallbacks;
+    }
+
+    /**
+     * Рахує, скільки спроб UNIFORM дати наступній розстановці.
+     *
+     * @return Бюджет спроб або 0, якщо UNIFORM для цього флоту безнадійний.
+     */
+    private long uniformBudget() {
+        if(uniformLayouts == 0) return uniformFallbacks > 0 ? 0 : maxUniformAttempts;
+        if(uniformLayouts < UNIFORM_CALIBRATION_LAYOUTS) return maxUniformAttempts;
+        long expected = (uniformAttempts + uniformLayouts - 1) / uniformLayouts;
+        return Math.min(maxUniformAttempts, Math.max(MIN_UNIFORM_BUDGET, UNIFORM_BUDGET_FACTOR * expected));
+    }
+
+    /**
+     * Генерує одну розстановку флоту.
+     * Якщо флот не вміщується на сітку або повний перебір вичерпав MAX_SEARCH_STEPS кроків,
+     * кидає IllegalStateException з відповідним поясненням.
+     *
+     * @param layout Масив, у який записується номер розміщення кожного корабля у порядку флоту з правил.
+     * @param offset Індекс у масиві, з якого записується розстановка.
+     */
+    public void generate(int[] layout, int offset) {
+        if(!fitsByArea) {
+            throw new IllegalStateException("Флот не вміщується на сітку " + rules.getWidth() + "x" + rules.getHeight());
+        }
+        if(mode == Mode.UNIFORM) {
+            long budget = uniformBudget();
+            for(long attempt = 1; attempt <= budget; attempt++) {
+                if(tryUniform(layout, offset)) {
+                    uniformAttempts += attempt;
+                    uniformLayouts++;
+                    return;
+                }
+            }
+            uniformAttempts += budget;
+            uniformFallbacks++;
+        }
+        for(int restart = 0; restart < MAX_RESTARTS; restart++) {
+            if(trySequential(layout, offset)) return;
+        }
+        searchSteps = 0;
+        forbidden[0].clearAll();
+        if(search(0, layout, offset)) return;
+        if(searchSteps > MAX_SEARCH_STEPS) {
+            throw new IllegalStateException("Розстановку флоту на сітці " + rules.getWidth() + "x" + rules.getHeight()
+                    + " не знайдено за " + MAX_SEARCH_STEPS + " кроків перебору");
+        }
+        throw new IllegalStateException("Флот не вміщується на сітку " + rules.getWidth() + "x" + rules.getHeight());
+    }
+
+    /**
+     * Генерує кілька розстановок підряд у спільний буфер.
+     * Розстановка i займає елементи [offset + i * розмір флоту, offset + (i + 1) * розмір флоту).
+     *
+     * @param layouts Буфер для розстановок.
+     * @param offset Індекс у буфері, з якого записується перша розстановка.
+     * @param count Кількість розстановок.
+     */
+    public void generateBulk(int[] layouts, int offset, int count) {
+        int fleetSize = rules.getFleetSize();
+        for(int i = 0; i < count; i++) {
+            generate(layouts, offset + i * fleetSize);
+        }
+    }
+
+    /**
+     * Отримує розміщення, за якими декодується номер розміщення корабля в розстановці.
+     *
+     * @param shipIndex Номер корабля у порядку флоту з правил.
+     * @return Розміщення кораблів довжини цього корабля.
+     */
+    public PlacementTable.Placements getPlacements(int shipIndex) {
+        return PlacementTable.forRules(rules).forLength(rules.getShipLength(shipIndex));
+    }
+
+    /**
+     * Одна спроба UNIFORM: кожен корабель незалежно отримує випадкове розміщення, а при першому конфлікті
+     * спроба відкидається. Оскільки конфлікт симетричний, прийняті розстановки рівноймовірні.
+     *
+     * @param layout Масив для розстановки.
+     * @param offset Індекс у масиві, з якого записується розстановка.
+     * @return True, якщо розстановка прийнята.
+     */
+    private boolean tryUniform(int[] layout, int offset) {
+        BitBoard board = forbidden[0];
+        board.clearAll();
+        for(int k = 0; k < order.length; k++) {
+            PlacementTable.Placements table = tables[k];
+            if(table.count() == 0) return false;
+            int placement = random.nextInt(table.count());
+            if(table.footprintIntersects(placement, board)) return false;
+            mark(table, placement, board);
+            layout[offset + order[k]] = placement;
+        }
+        return true;
+    }
+
+    /**
+     * Одна спроба FAST: кораблі ставляться по черзі, кожен рівноймовірно серед місць, що залишилися.
+     *
+     * @param layout Масив для розстановки.
+     * @param offset Індекс у масиві, з якого записується розстановка.
+     * @return True, якщо вдалося поставити всі кораблі.
+     */
+    private boolean trySequential(int[] layout, int offset) {
+        BitBoard board = forbidden[0];
+        board.clearAll();
+        for(int k = 0; k < order.length; k++) {
+            PlacementTable.Placements table = tables[k];
+            int placement = pickFree(table, board);
+            if(placement < 0) return false;
+            mark(table, placement, board);
+            layout[offset + order[k]] = placement;
+        }
+        return true;
+    }
+
+    /**
+     * Вибирає рівноймовірно розміщення, що не зачіпає заборонених клітинок. Спершу пробує кілька
+     * випадкових розміщень, а якщо жодне не підійшло - перебирає всі.
+     *
+     * @param table Розміщення корабля.
+     * @param board Заборонені клітинки.
+     * @return Номер розміщення або -1, якщо вільних немає.
+     */
+    private int pickFree(PlacementTable.Placements table, BitBoard board) {
+        int count = table.count();
+        if(count == 0) return -1;
+        for(int attempt = 0; attempt < QUICK_PLACEMENT_TRIES; attempt++) {
+            int placement = random.nextInt(count);
+            if(!table.footprintIntersects(placement, board)) return placement;
+        }
+        int chosen = -1;
+        int seen = 0;
+        for(int placement = 0; placement < count; placement++) {
+            if(!table.footprintIntersects(placement, board) && random.nextInt(++seen) == 0) {
+                chosen = placement;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Повний перебір з поверненням, що гарантовано знаходить розстановку, якщо вона існує
+     * і вкладається в MAX_SEARCH_STEPS перевірок. Розміщення кожного корабля перебираються з випадкового місця.
+     *
+     * @param k Номер корабля в order, який ставиться зараз.
+     * @param layout Масив для розстановки.
+     * @param offset Індекс у масиві, з якого записується розстановка.
+     * @return True, якщо розстановку знайдено.
+     */
+    private boolean search(int k, int[] layout, int offset) {
+        if(k == order.length) return true;
+        PlacementTable.Placements table = tables[k];
+        int count = table.count();
+        if(count == 0) return false;
+        int start = random.nextInt(count);
+        for(int i = 0; i < count; i++) {
+            if(++searchSteps > MAX_SEARCH_STEPS) return false;
+            int placement = (start + i) % count;
+            if(table.footprintIntersects(placement, forbidden[k])) continue;
+            forbidden[k + 1].copyFrom(forbidden[k]);
+            mark(table, placement, forbidden[k + 1]);
+            layout[offset + order[k]] = placement;
+            if(search(k + 1, layout, offset)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Забороняє клітинки корабля, а якщо кораблі не торкаються - і його ореол.
+     *
+     * @param table Розміщення корабля.
+     * @param placement Номер розміщення.
+     * @param board Заборонені клітинки.
+     */
+    private void mark(PlacementTable.Placements table, int placement, BitBoard board) {
+        if(rules.shipsMayTouch()) {
+            table.addFootprint(placement, board);
+        } else {
+            table.addHalo(placement, board);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.Arrays;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас FrameStats
+ * Час малювання останніх кадрів у кільцевому буфері для перцентилів p50/p99.
+ * Запис і читання потокобезпечні й не створюють об'єктів, тож статистику можна читати з будь-якого потоку
+ * під час роботи циклу рендерингу.
+ */
+public class FrameStats {
+    /**
+     * Кількість останніх кадрів, з яких рахуються перцентилі, за замовчуванням.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * Час останніх кадрів у наносекундах по колу.
+     */
+    private final long[] samples;
+    /**
+     * Робочий масив для сортування під час підрахунку перцентиля.
+     */
+    private final long[] sorted;
+    /**
+     * Позиція для наступного запису в samples.
+     */
+    private int next;
+    /**
+     * Кількість записаних кадрів у samples, не більша за його розмір.
+     */
+    private int size;
+    /**
+     * Кількість усіх записаних кадрів.
+     */
+    private long frameCount;
+
+    /**
+     * Створює статистику для DEFAULT_CAPACITY останніх кадрів.
+     */
+    public FrameStats() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Створює статистику для заданої кількості останніх кадрів.
+     *
+     * @param capacity Кількість останніх кадрів, з яких рахуються перцентилі.
+     */
+    public FrameStats(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("Кількість кадрів має бути додатною: " + capacity);
+        }
+        samples = new long[capacity];
+        sorted = new long[capacity];
+    }
+
+    /**
+     * Записує час малювання кадру.
+     *
+     * @param nanos Час кадру в наносекундах.
+     */
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if(size < samples.length) size++;
+        frameCount++;
+    }
+
+    /**
+     * Отримує перцентиль часу кадру серед останніх записаних кадрів.
+     *
+     * @param percentile Перцентиль від 0 до 100, наприклад 50 для медіани.
+     * @return Час кадру в мілісекундах або 0, якщо кадрів ще не було.
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        if(size == 0) return 0;
+        System.arraycopy(samples, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+        int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))] / 1e6;
+    }
+
+    /**
+     * Отримує кількість усіх записаних кадрів.
+     *
+     * @return Кількість кадрів.
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Забуває всі записані кадри.
+     */
+    public synchronized void reset() {
+        next = 0;
+        size = 0;
+        frameCount = 0;
+    }
+}
@@ -1,6 +1,8 @@
 import javax.swing.*;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 /**
  * Морський бій
@@ -13,27 +15,39 @@ public class Game implements KeyListener {
     /**
      * Точка входу для програми, створення екземпляра класу Game.
      *
-     * @param args Не використовується.
+     * @param args "active" та необов'язкова частота кадрів, щоб малювати гру в режимі активного рендерингу.
      */
     public static void main(String[] args) {
-        Game battleShip = new Game();
+        int frameRate = 0;
+        if(args.length > 0 && args[0].equals("active")) {
+            frameRate = args.length > 1 ? Integer.parseInt(args[1]) : GameCanvas.DEFAULT_FRAME_RATE;
+        }
+        Game battleShip = new Game(frameRate);
     }
 
     /**
      * Посилання на об’єкт GameController для передачі ключових подій.
      */
     private GameController gameController;
+    /**
+     * Полотно активного рендерингу або null, якщо гра малюється за подіями.
+     */
+    private GameCanvas gameCanvas;
 
     /**
      * Створює JFrame з GameController всередині нього і робить все видимим.
+     *
+     * @param frameRate Частота кадрів активного рендерингу або 0, щоб малювати гру за подіями.
      */
-    public Game() {
+    public Game(int frameRate) {
         // Вибір складності
-        String[] options = new String[] {"Легкий", "Середній", "Важкий"};
+        String[] options = new String[] {"Легкий", "Середній", "Важкий", "Експерт"};
         String message = "Легкий буде робити ходи абсолютно випадковим чином,\n\n" +
                 "Середній зосереджуватиметься на місцях, де знаходить кораблі,"
                 + "\n\n" +
-                "Важкий зробить розумніший вибір, ніж Середній.";
+                "Важкий зробить розумніший вибір, ніж Середній,"
+                + "\n\n" +
+                "Експерт стрілятиме туди, де корабель найімовірніший.";
         int choiseDifficulty = JOptionPane.showOptionDialog(null, message,
                 "Виберіть складність",
                 JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE,
@@ -44,20 +58,38 @@ public class Game implements KeyListener {
         frame.setResizable(false);
 
         gameController = new GameController(choiseDifficulty);
-        frame.getContentPane().add(gameController);
+        if(frameRate > 0) {
+            gameCanvas = new GameCanvas(gameController, frameRate);
+            gameCanvas.addKeyListener(this);
+            frame.getContentPane().add(gameCanvas);
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    gameCanvas.stop();
+                }
+            });
+        } else {
+            frame.getContentPane().add(gameController);
+        }
 
         frame.addKeyListener(this);
         frame.pack();
         frame.setVisible(true);
+        if(gameCanvas != null) gameCanvas.start();
     }
 
     /**
      * Викликається при натисканні клавіші. Передає натискання клавіші на GameController.
+     * F у режимі активного рендерингу показує або ховає статистику кадрів.
      *
      * @param e Інформація про те, яку клавішу було натиснуто.
      */
     @Override
     public void keyPressed(KeyEvent e) {
+        if(gameCanvas != null && e.getKeyCode() == KeyEvent.VK_F) {
+            gameCanvas.setOverlayVisible(!gameCanvas.isOverlayVisible());
+            return;
+        }
         gameController.keyInput(e.getKeyCode());
     }
 
@@ -0,0 +1,428 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас GameCanvas
+ * Необов'язковий режим активного рендерингу: полотно з BufferStrategy, яке малює GameController
+ * з фіксованою частотою кадрів замість пасивного перемальовування за подіями введення.
+ * Окремий потік лише задає ритм: кожен кадр малюється в потоці подій Swing, тож стан гри не читається
+ * паралельно з ходами, а нових кадрів не стає більше, ніж встигає намалюватися.
+ * Між кадрами грають анімації: постріл летить до клітинки і розходиться колом, знищений корабель блимає.
+ * Час малювання кадрів збирається в FrameStats і може показуватися поверх гри.
+ */
+public class GameCanvas extends Canvas implements ShotListener {
+    /**
+     * Версія формату серіалізації.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Частота кадрів за замовчуванням.
+     */
+    public static final int DEFAULT_FRAME_RATE = 60;
+    /**
+     * Час польоту пострілу до клітинки в наносекундах.
+     */
+    private static final long SHOT_FLIGHT_NANOS = 250_000_000L;
+    /**
+     * Час розходження кола після пострілу в наносекундах.
+     */
+    private static final long SPLASH_NANOS = 150_000_000L;
+    /**
+     * Час блимання знищеного корабля в наносекундах.
+     */
+    private static final long SINK_NANOS = 600_000_000L;
+    /**
+     * Тривалість одного блимання знищеного корабля в наносекундах.
+     */
+    private static final long SINK_BLINK_NANOS = 100_000_000L;
+    /**
+     * Як часто оновлюється текст статистики кадрів, у наносекундах.
+     */
+    private static final long OVERLAY_REFRESH_NANOS = 500_000_000L;
+    /**
+     * Радіус пострілу в польоті в пікселях.
+     */
+    private static final int SHOT_RADIUS = 5;
+    /**
+     * Колір рамки знищеного корабля, що блимає.
+     */
+    private static final Color SINK_FLASH_COLOUR = new Color(255, 200, 0);
+    /**
+     * Колір фону статистики кадрів.
+     */
+    private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 160);
+    /**
+     * Шрифт статистики кадрів.
+     */
+    private static final Font OVERLAY_FONT = new Font("Monospaced", Font.PLAIN, 12);
+    /**
+     * Відступ тексту статистики кадрів від краю фону в пікселях.
+     */
+    private static final int OVERLAY_PADDING = 4;
+
+    /**
+     * Анімація, що малюється поверх кадру, доки не закінчиться.
+     */
+    private abstract static class Animation {
+        /**
+         * Час початку анімації за System.nanoTime.
+         */
+        protected final long start;
+
+        /**
+         * Створює анімацію.
+         *
+         * @param start Час початку анімації за System.nanoTime, може бути в майбутньому.
+         */
+        protected Animation(long start) {
+            this.start = start;
+        }
+
+        /**
+         * Малює поточний кадр анімації.
+         *
+         * @param g Посилання на графічний об’єкт для малювання.
+         * @param now Поточний час за System.nanoTime.
+         * @return False, якщо анімація закінчилася і її треба прибрати.
+         */
+        protected abstract boolean draw(Graphics g, long now);
+    }
+
+    /**
+     * Постріл, що летить з панелі стану до клітинки, а потім розходиться колом.
+     */
+    private static final class ShotAnimation extends Animation {
+        /**
+         * Початкова точка польоту.
+         */
+        private final int fromX, fromY;
+        /**
+         * Центр клітинки пострілу.
+         */
+        private final int toX, toY;
+        /**
+         * Колір пострілу: влучення чи промах.
+         */
+        private final Color colour;
+
+        /**
+         * Створює анімацію пострілу.
+         *
+         * @param start Час пострілу.
+         * @param fromX X початкової точки.
+         * @param fromY Y початкової точки.
+         * @param toX X центру клітинки.
+         * @param toY Y центру клітинки.
+         * @param hit True, якщо постріл влучив у корабель.
+         */
+        private ShotAnimation(long start, int fromX, int fromY, int toX, int toY, boolean hit) {
+            super(start);
+            this.fromX = fromX;
+            this.fromY = fromY;
+            this.toX = toX;
+            this.toY = toY;
+            colour = hit ? SpriteAtlas.HIT_COLOUR : SpriteAtlas.MISS_COLOUR;
+        }
+
+        @Override
+        protected boolean draw(Graphics g, long now) {
+            long elapsed = now - start;
+            g.setColor(colour);
+            if(elapsed < SHOT_FLIGHT_NANOS) {
+                int x = (int) (fromX + (toX - fromX) * elapsed / SHOT_FLIGHT_NANOS);
+                int y = (int) (fromY + (toY - fromY) * elapsed / SHOT_FLIGHT_NANOS);
+                g.fillOval(x - SHOT_RADIUS, y - SHOT_RADIUS, SHOT_RADIUS * 2, SHOT_RADIUS * 2);
+                return true;
+            }
+            elapsed -= SHOT_FLIGHT_NANOS;
+            if(elapsed >= SPLASH_NANOS) return false;
+            int radius = SHOT_RADIUS + (int) (GridView.SIZE_OF_CELL / 2 * elapsed / SPLASH_NANOS);
+            g.drawOval(toX - radius, toY - radius, radius * 2, radius * 2);
+            return true;
+        }
+    }
+
+    /**
+     * Рамка знищеного корабля, що блимає після прильоту пострілу.
+     */
+    private static final class SinkAnimation extends Animation {
+        /**
+         * Область корабля в пікселях.
+         */
+        private final int x, y, width, height;
+
+        /**
+         * Створює анімацію знищення.
+         *
+         * @param start Час, коли постріл долетить до корабля.
+         * @param x X лівого верхнього кута корабля.
+         * @param y Y лівого верхнього кута корабля.
+         * @param width Ширина корабля.
+         * @param height Висота корабля.
+         */
+        private SinkAnimation(long start, int x, int y, int width, int height) {
+            super(start);
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        protected boolean draw(Graphics g, long now) {
+            long elapsed = now - start;
+            if(elapsed < 0) return true;
+            if(elapsed >= SINK_NANOS) return false;
+            if((elapsed / SINK_BLINK_NANOS) % 2 == 0) {
+                g.setColor(SINK_FLASH_COLOUR);
+                g.drawRect(x, y, width - 1, height - 1);
+                g.drawRect(x + 1, y + 1, width - 3, height - 3);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Контролер гри, який малює кадр і отримує введення з полотна.
+     */
+    private final GameController controller;
+    /**
+     * Тривалість одного кадру в наносекундах за заданою частотою.
+     */
+    private final long framePeriodNanos;
+    /**
+     * Час малювання кадрів.
+     */
+    private final FrameStats stats = new FrameStats();
+    /**
+     * Анімації, що зараз грають. Змінюються і малюються лише в потоці подій Swing.
+     */
+    private final List<Animation> animations = new ArrayList<>();
+    /**
+     * Завдання малювання кадру для потоку подій Swing.
+     */
+    private final Runnable renderTask = this::renderFrame;
+    /**
+     * True, поки працює цикл рендерингу.
+     */
+    private volatile boolean running;
+    /**
+     * Потік, що задає ритм кадрів.
+     */
+    private Thread loop;
+    /**
+     * True, якщо статистика кадрів показується поверх гри.
+     */
+    private boolean overlayVisible = true;
+    /**
+     * Текст статистики кадрів, що оновлюється раз на OVERLAY_REFRESH_NANOS.
+     */
+    private String overlayText = "";
+    /**
+     * Ширина тексту статистики кадрів у пікселях або -1, якщо її треба виміряти заново.
+     */
+    private int overlayTextWidth = -1;
+    /**
+     * Час останнього оновлення тексту статистики.
+     */
+    private long overlayUpdated;
+    /**
+     * Кількість кадрів на момент останнього оновлення тексту статистики.
+     */
+    private long overlayFrames;
+
+    /**
+     * Створює полотно для контролера, передає йому введення миші і підписується на постріли по обох сітках.
+     *
+     * @param controller Контролер гри, який малює кадр.
+     * @param frameRate Найбільша кількість кадрів за секунду.
+     */
+    public GameCanvas(GameController controller, int frameRate) {
+        if(frameRate < 1) {
+            throw new IllegalArgumentException("Частота кадрів має бути додатною: " + frameRate);
+        }
+        this.controller = controller;
+        framePeriodNanos = 1_000_000_000L / frameRate;
+        setPreferredSize(controller.getPreferredSize());
+        setIgnoreRepaint(true);
+        addMouseListener(controller);
+        addMouseMotionListener(controller);
+        controller.getComputerView().getGrid().addShotListener(this);
+        controller.getPlayerView().getGrid().addShotListener(this);
+    }
+
+    /**
+     * Створює подвійний буфер і запускає цикл рендерингу. Полотно вже має бути показане у вікні.
+     */
+    public void start() {
+        if(running) return;
+        createBufferStrategy(2);
+        running = true;
+        loop = new Thread(this::runLoop, "Рендеринг");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    /**
+     * Зупиняє цикл рендерингу і звільняє подвійний буфер. Викликається в потоці подій Swing,
+     * наприклад при закритті вікна.
+     */
+    public void stop() {
+        if(!running) return;
+        running = false;
+        loop.interrupt();
+        BufferStrategy strategy = getBufferStrategy();
+        if(strategy != null) strategy.dispose();
+    }
+
+    /**
+     * Отримує статистику часу малювання кадрів.
+     *
+     * @return Статистика кадрів з перцентилями.
+     */
+    public FrameStats getFrameStats() {
+        return stats;
+    }
+
+    /**
+     * Перевіряє, чи статистика кадрів показується поверх гри.
+     *
+     * @return True, якщо статистика показується.
+     */
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    /**
+     * Показує або ховає статистику кадрів поверх гри.
+     *
+     * @param overlayVisible True, щоб показувати статистику.
+     */
+    public void setOverlayVisible(boolean overlayVisible) {
+        this.overlayVisible = overlayVisible;
+    }
+
+    /**
+     * Запускає анімацію пострілу і, якщо корабель знищено, анімацію знищення після прильоту.
+     * Постріл летить із середини панелі стану між сітками.
+     *
+     * @param grid Сітка, по якій стріляли.
+     * @param pos Позиція пострілу.
+     * @param result Результат пострілу.
+     * @param ship Корабель, у який влучили, або null у разі промаху.
+     */
+    @Override
+    public void shotResolved(GameGrid grid, Coordinates pos, GameGrid.ShotResult result, Ship ship) {
+        GridView computer = controller.getComputerView();
+        GridView view = grid == computer.getGrid() ? computer : controller.getPlayerView();
+        int size = GridView.SIZE_OF_CELL;
+        int fromX = computer.getWidth() / 2;
+        int fromY = computer.getStartPoint().y + computer.getHeight() + 25;
+        int toX = view.getStartPoint().x + pos.x * size + size / 2;
+        int toY = view.getStartPoint().y + pos.y * size + size / 2;
+        long now = System.nanoTime();
+        animations.add(new ShotAnimation(now, fromX, fromY, toX, toY, result.isHit()));
+        if(result.isSunk() && ship != null) {
+            Coordinates shipPos = ship.getPosition();
+            int length = size * ship.getNumberOfDeck();
+            animations.add(new SinkAnimation(now + SHOT_FLIGHT_NANOS,
+                    view.getStartPoint().x + shipPos.x * size, view.getStartPoint().y + shipPos.y * size,
+                    ship.getShipOrientation() ? length : size, ship.getShipOrientation() ? size : length));
+        }
+    }
+
+    /**
+     * Цикл рендерингу: малює кадр у потоці подій Swing і чекає до початку наступного кадру.
+     * Якщо кадр не встиг за свій час, наступний починається одразу, без спроб надолужити пропущені.
+     */
+    private void runLoop() {
+        long next = System.nanoTime();
+        while(running) {
+            try {
+                SwingUtilities.invokeAndWait(renderTask);
+            } catch (InterruptedException e) {
+                return;
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException("Помилка малювання кадру", e.getCause());
+            }
+            next += framePeriodNanos;
+            long wait = next - System.nanoTime();
+            if(wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Малює один кадр у задній буфер і показує його, повторюючи, якщо вміст буфера було втрачено.
+     * Час малювання записується в статистику.
+     */
+    private void renderFrame() {
+        BufferStrategy strategy = getBufferStrategy();
+        if(!running || strategy == null) return;
+        long start = System.nanoTime();
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    controller.render(g);
+                    drawAnimations(g, start);
+                    if(overlayVisible) drawOverlay(g, start);
+                } finally {
+                    g.dispose();
+                }
+            } while(strategy.contentsRestored());
+            strategy.show();
+        } while(strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        stats.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Малює всі анімації і прибирає ті, що закінчилися.
+     *
+     * @param g Посилання на графічний об’єкт для малювання.
+     * @param now Час кадру за System.nanoTime.
+     */
+    private void drawAnimations(Graphics g, long now) {
+        for(int i = animations.size() - 1; i >= 0; i--) {
+            if(!animations.get(i).draw(g, now)) animations.remove(i);
+        }
+    }
+
+    /**
+     * Малює статистику кадрів у лівому верхньому куті на фоні за розміром тексту.
+     * Текст оновлюється і вимірюється раз на OVERLAY_REFRESH_NANOS.
+     *
+     * @param g Посилання на графічний об’єкт для малювання.
+     * @param now Час кадру за System.nanoTime.
+     */
+    private void drawOverlay(Graphics g, long now) {
+        if(now - overlayUpdated >= OVERLAY_REFRESH_NANOS) {
+            long frames = stats.getFrameCount();
+            double fps = (frames - overlayFrames) * 1e9 / (now - overlayUpdated);
+            overlayText = String.format("p50 %.2f мс  p99 %.2f мс  %.0f к/с",
+                    stats.getPercentileMillis(50), stats.getPercentileMillis(99), fps);
+            overlayTextWidth = -1;
+            overlayUpdated = now;
+            overlayFrames = frames;
+        }
+        g.setFont(OVERLAY_FONT);
+        FontMetrics metrics = g.getFontMetrics();
+        if(overlayTextWidth < 0) overlayTextWidth = metrics.stringWidth(overlayText);
+        g.setColor(OVERLAY_BACKGROUND);
+        g.fillRect(0, 0, overlayTextWidth + OVERLAY_PADDING * 2, metrics.getHeight() + OVERLAY_PADDING);
+        g.setColor(Color.WHITE);
+        g.drawString(overlayText, OVERLAY_PADDING, OVERLAY_PADDING / 2 + metrics.getAscent());
+    }
+}
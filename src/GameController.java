@@ -4,6 +4,10 @@ import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
 
 
 /**
@@ -11,77 +15,159 @@ import java.awt.event.MouseMotionListener;
  * Author: Герасимчук Олександр
  *
  * Клас GameController:
- * Керує двома сітками, однією для гравця, а іншою для комп’ютера, за допомогою
- * панелі стану між ними. Залежно від стану гри гравець може
+ * Відображає дві сітки, одну для гравця, а іншу для комп’ютера, за допомогою
+ * панелі стану між ними. Уся логіка гри знаходиться в GameEngine, а контролер лише
+ * передає йому введення гравця і показує результат. Залежно від стану гри гравець може
  * розмістити кораблі на своїй сітці або атакувати сітку комп'ютера.
+ * Перемальовуються лише змінені області: клітинка пострілу, старе і нове місце корабля, що розміщується,
+ * і смуга панелі стану. Повністю панель перемальовується лише при скиданні гри.
+ * ШІ вибирає хід у фоновому потоці, а результат повертається в потік подій Swing,
+ * тож вікно не зависає, поки комп'ютер думає. ШІ починає обирати хід одразу, як гравець отримує свій хід:
+ * постріл гравця не змінює того, що ШІ знає про сітку гравця, тож готовий хід лишається дійсним.
  */
 public class GameController extends JPanel implements MouseListener, MouseMotionListener {
     /**
-     * GameStates, які змінюють спосіб взаємодії.
-     * Розміщення кораблів: у цьому стані гравець може розміщувати кораблі на своїй дошці.
-     * Стан закінчується, коли всі кораблі розміщені.
-     * Game: гравець може атакувати сітку комп’ютера та отримувати відповідь.
-     * Стан закінчується, коли всі кораблі на будь-якій сітці були знищені.
-     * GameOver: коли гравець або комп’ютер знищено, щоб запобігти введенню.
-     * Закінчується, коли гравець виходить або вирішує перезапустити.
+     * Найбільший час у мілісекундах, який гравець чекає на хід ШІ після свого пострілу.
+     * Відлік іде від пострілу гравця, а не від початку вибору: ШІ починає обирати хід ще під час ходу гравця,
+     * тож загалом на вибір може піти більше часу. Після цього потік ШІ переривається, і ШІ, що вміє зупинятися,
+     * повертає найкращий знайдений хід, а якщо ШІ не вибирає хід у цю мить, комп'ютер одразу стріляє запасним ходом.
      */
-    public enum GameState { PlacingShips, Game, GameOver }
-
+    private static final int AI_MOVE_DEADLINE_MILLIS = 2000;
     /**
-     * Посилання на панель стану для передачі текстових повідомлень, щоб показати, що відбувається.
+     * Найменший проміжок між оновленнями корабля розміщення за рухом миші, один кадр.
      */
-    private StatusPanel statusPanel;
+    private static final int HOVER_UPDATE_MILLIS = 1000 / GameCanvas.DEFAULT_FRAME_RATE;
+    /**
+     * Правила гри для обох сіток.
+     */
+    private GameRules rules;
     /**
-     * Комп'ютерна сітка для атаки гравця.
+     * Рушій гри, який зберігає сітки, ШІ та стан гри.
      */
-    private GameGrid computer;
+    private GameEngine engine;
+    /**
+     * Посилання на панель стану для передачі текстових повідомлень, щоб показати, що відбувається.
+     */
+    private StatusPanel statusPanel;
     /**
-     * Сітка гравця для атаки комп'ютера.
+     * Відображення комп'ютерної сітки для атаки гравця.
      */
-    private GameGrid player;
+    private GridView computer;
     /**
-     * AI для керування тим, що комп’ютер робитиме кожного ходу.
+     * Відображення сітки гравця для атаки комп'ютера.
      */
-    private BattleshipAI ai;
+    private GridView player;
 
     /**
      * Посилання на тимчасове судно, яке розміщується під час стану PlacingShips.
      */
     private Ship placingShip;
+    /**
+     * Колір тимчасового судна, що показує, чи можна його розмістити.
+     */
+    private GridView.PlacementColour placingShipColour;
     /**
      *
      * Положення сітки, де розміщено корабель розміщення.
      */
     private Coordinates tempPlacingCoords;
     /**
-     * Посилання на те, який корабель має бути розміщений наступним під час стану PlacingShips.
+     * Стан, який можна перемикати за допомогою D, щоб показати кораблі комп’ютера.
      */
-    private int placingShipIndex;
+    public static boolean debugMode;
+
     /**
-     * Стан гри, який показує, чи може гравець розміщувати кораблі, атакувати комп’ютер,
-     * або якщо гра вже закінчена.
+     * Фоновий потік, у якому ШІ вибирає хід.
      */
-    private GameState gameState;
+    private final ExecutorService aiExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "Хід ШІ");
+        thread.setDaemon(true);
+        return thread;
+    });
     /**
-     * Стан, який можна перемикати за допомогою D, щоб показати кораблі комп’ютера.
+     * Замок ШІ поточної гри, під яким ШІ вибирає хід або стріляє запасним ходом, щоб вони не перетиналися.
+     * Створюється разом із ШІ, тож завдання старої гри, що ще дораховує хід, не тримає замок нової.
+     * Потік подій Swing лише пробує його взяти і ніколи не чекає на потік ШІ.
      */
-    public static boolean debugMode;
-
+    private ReentrantLock aiLock;
+    /**
+     * Обрана складність ШІ, за якою при кожному скиданні створюється новий ШІ.
+     */
+    private final int aiChoice;
+    /**
+     * ШІ поточної гри.
+     */
+    private BattleshipAI computerAI;
+    /**
+     * Таймер, що перериває вибір ходу ШІ після AI_MOVE_DEADLINE_MILLIS.
+     */
+    private final Timer aiDeadline;
+    /**
+     * Поточне завдання вибору ходу ШІ або null.
+     */
+    private Future<?> aiTask;
+    /**
+     * Номер ходу ШІ. Кожен новий вибір ходу і кожне скасування збільшують його,
+     * щоб запізнілий результат попереднього вибору було відкинуто.
+     */
+    private volatile int aiTurn;
+    /**
+     * Номер ходу ШІ, результат якого потік ШІ вже передав у потік подій Swing.
+     */
+    private volatile int aiAnsweredTurn;
+    /**
+     * True, поки гравець чекає на хід ШІ. Введення гравця в цей час ігнорується.
+     */
+    private boolean aiThinking;
+    /**
+     * Хід ШІ, обраний наперед під час ходу гравця, або -1, якщо його ще немає.
+     */
+    private int aiPonderedCell;
+    /**
+     * Таймер, що обмежує оновлення корабля розміщення за рухом миші одним на кадр.
+     */
+    private final Timer hoverThrottle;
+    /**
+     * Клітинка сітки гравця під курсором, до якої вже пересунуто корабель розміщення, або -1.
+     */
+    private int hoverCell = -1;
+    /**
+     * Остання клітинка сітки гравця під курсором, що чекає на оновлення, або -1.
+     */
+    private int pendingHoverCell = -1;
 
     /**
      * Ініціалізує все необхідне для початку гри.
      * Штучний інтелект налаштований і все готово для початку гри з розміщення корабля для гравця.
      */
     public GameController(int aiChoice) {
-        computer = new GameGrid(0,0);
-        player = new GameGrid(0,computer.getHeight()+50);
+        this(aiChoice, GameRules.CLASSIC);
+    }
+
+    /**
+     * Ініціалізує все необхідне для початку гри за вказаними правилами.
+     *
+     * @param aiChoice Обрана складність ШІ.
+     * @param rules Правила гри з розміром сітки та складом флоту.
+     */
+    public GameController(int aiChoice, GameRules rules) {
+        this.rules = rules;
+        this.aiChoice = aiChoice;
+        engine = new GameEngine(rules);
+        computer = new GridView(engine.getComputerGrid(), 0, 0);
+        player = new GridView(engine.getPlayerGrid(), 0, computer.getHeight()+50);
         setBackground(new Color(219, 219, 225));
         setPreferredSize(new Dimension(computer.getWidth(), player.getStartPoint().y + player.getHeight()));
         addMouseListener(this);
         addMouseMotionListener(this);
-        if(aiChoice == 0) ai = new SimpleAI(player);
-        else ai = new SmartAI(player,aiChoice == 2,aiChoice == 2);
-        statusPanel = new StatusPanel(new Coordinates(0,computer.getHeight()+1),computer.getWidth(),49);
+        statusPanel = new StatusPanel(Coordinates.of(0,computer.getHeight()+1),computer.getWidth(),49);
+        computer.setSurface(this);
+        player.setSurface(this);
+        statusPanel.setSurface(this);
+        aiDeadline = new Timer(AI_MOVE_DEADLINE_MILLIS, e -> aiDeadlinePassed());
+        aiDeadline.setRepeats(false);
+        hoverThrottle = new Timer(HOVER_UPDATE_MILLIS, e -> applyHover());
+        hoverThrottle.setRepeats(false);
         reset();
     }
 
@@ -92,18 +178,75 @@ public class GameController extends JPanel implements MouseListener, MouseMotion
      */
     public void paint(Graphics g) {
         super.paint(g);
-        computer.draw(g);
-        player.draw(g);
-        if(gameState == GameState.PlacingShips) {
-            placingShip.draw(g);
+        drawContents(g);
+    }
+
+    /**
+     * Малює весь кадр гри в чужий графічний об'єкт, наприклад у буфер активного рендерингу GameCanvas:
+     * фон панелі, сітки, корабель, що розміщується, і панель стану.
+     *
+     * @param g Посилання на графічний об’єкт для малювання.
+     */
+    public void render(Graphics g) {
+        g.setColor(getBackground());
+        g.fillRect(0, 0, computer.getWidth(), player.getStartPoint().y + player.getHeight());
+        drawContents(g);
+    }
+
+    /**
+     * Малює сітки, корабель, що розміщується, і панель стану поверх фону.
+     * Частини, що не перетинають область перемальовування, пропускаються.
+     *
+     * @param g Посилання на графічний об’єкт для малювання.
+     */
+    private void drawContents(Graphics g) {
+        if(isDamaged(computer, g)) {
+            computer.draw(g);
+        }
+        if(isDamaged(player, g)) {
+            player.draw(g);
+            if(engine.getGameState() == GameEngine.GameState.PlacingShips) {
+                player.drawShip(g, placingShip, placingShipColour);
+            }
         }
-        statusPanel.draw(g);
+        if(isDamaged(statusPanel, g)) {
+            statusPanel.draw(g);
+        }
+    }
+
+    /**
+     * Перевіряє, чи частина панелі потрапляє в область перемальовування, не створюючи об'єкта області.
+     *
+     * @param part Частина панелі.
+     * @param g Графічний об'єкт з областю перемальовування.
+     * @return True, якщо частину треба малювати.
+     */
+    private boolean isDamaged(Rectangle part, Graphics g) {
+        return g.hitClip(part.getStartPoint().x, part.getStartPoint().y, part.getWidth(), part.getHeight());
+    }
+
+    /**
+     * Отримує відображення сітки комп'ютера.
+     *
+     * @return Відображення сітки, яку атакує гравець.
+     */
+    public GridView getComputerView() {
+        return computer;
+    }
+
+    /**
+     * Отримує відображення сітки гравця.
+     *
+     * @return Відображення сітки, яку атакує комп'ютер.
+     */
+    public GridView getPlayerView() {
+        return player;
     }
 
     /**
      * Обробляє введення на основі натиснутих клавіш.
-     * Escape завершує роботу програми.
-     * R перезапускається.
+     * Escape скасовує хід ШІ і завершує роботу програми.
+     * R скасовує хід ШІ і перезапускається.
      * T обертає корабель у стані PlacingShips.
      * D активує режим налагодження, щоб показати комп’ютерні кораблі.
      *
@@ -111,88 +254,106 @@ public class GameController extends JPanel implements MouseListener, MouseMotion
      */
     public void keyInput(int keyCode) {
         if(keyCode == KeyEvent.VK_ESCAPE) {
+            cancelAITurn();
+            aiExecutor.shutdownNow();
             System.exit(1);
         } else if(keyCode == KeyEvent.VK_R) {
             reset();
-        } else if(gameState == GameState.PlacingShips && keyCode == KeyEvent.VK_T) {
+        } else if(engine.getGameState() == GameEngine.GameState.PlacingShips && keyCode == KeyEvent.VK_T) {
+            player.repaintShip(placingShip);
             placingShip.flipOrientation();
             updateShipPlacement(tempPlacingCoords);
         } else if(keyCode == KeyEvent.VK_D) {
             debugMode = !debugMode;
+            computer.repaint();
         }
-        repaint();
+    }
+
+    /**
+     * Створює ШІ обраної складності.
+     *
+     * @return Новий ШІ для правил гри.
+     */
+    private BattleshipAI createAI() {
+        if(aiChoice == 0) return new SimpleAI(rules);
+        if(aiChoice == 3) return new ProbabilityAI(rules);
+        return new SmartAI(rules, aiChoice == 2, aiChoice == 2);
     }
 
     /**
      * Скидає всі властивості класу до стандартних значень, готових до початку нової гри.
+     * Хід ШІ, що ще обирається, скасовується, а нова гра отримує новий ШІ: старий може ще дораховувати
+     * хід у фоновому потоці, але його результат буде відкинуто, і потік подій Swing на нього не чекає.
      */
     public void reset() {
+        cancelAITurn();
+        computerAI = createAI();
+        aiLock = new ReentrantLock();
+        engine.setComputerAI(computerAI);
+        engine.reset();
         computer.reset();
         player.reset();
         player.setShowAllShips(true);
-        ai.reset();
-        tempPlacingCoords = new Coordinates(0,0);
-        placingShip = new Ship(new Coordinates(0,0),
-                new Coordinates(player.getStartPoint().x,player.getStartPoint().y),
-                GameGrid.BOATS[0], true);
-        placingShipIndex = 0;
+        tempPlacingCoords = Coordinates.ZERO;
+        hoverThrottle.stop();
+        hoverCell = -1;
+        pendingHoverCell = -1;
+        placingShip = new Ship(Coordinates.ZERO, engine.getPlacingShipLength(), true);
         updateShipPlacement(tempPlacingCoords);
-        computer.makeShips();
         debugMode = false;
         statusPanel.reset();
-        gameState = GameState.PlacingShips;
+        repaint();
     }
 
     /**
      * Використовує позицію миші, щоб перевірити оновлення корабля, розміщеного під час стану PlacingShip.
      * Тоді, якщо місце його розміщення дійсне, корабель можна установити.
      *
-     * @param mouseCoords Координати миші всередині панелі.
+     * @param xMouse X координата миші всередині панелі.
+     * @param yMouse Y координата миші всередині панелі.
      */
-    private void tryPlaceShip(Coordinates mouseCoords) {
-        Coordinates targetPosition = player.getMousePosition(mouseCoords.x, mouseCoords.y);
+    private void tryPlaceShip(int xMouse, int yMouse) {
+        Coordinates targetPosition = player.getMousePosition(xMouse, yMouse);
         updateShipPlacement(targetPosition);
-        if(player.isValidShipPlacement(targetPosition.x, targetPosition.y,
-                GameGrid.BOATS[placingShipIndex],placingShip.getShipOrientation())) {
+        if(placingShipColour == GridView.PlacementColour.Аvailable) {
             placeShip(targetPosition);
         }
     }
 
     /**
-     * Завершує вставлення розміщеного корабля, зберігаючи його в сітці гравця.
-     * Потім або готує наступний корабель до розміщення, або переходить до наступного стану.
+     * Передає розміщений корабель рушію, щоб зберегти його в сітці гравця.
+     * Потім або готує наступний корабель до розміщення, або показує початок бою.
      *
      * @param targetCoords Позиція на сітці, куди потрібно вставити корабель.
      */
     private void placeShip(Coordinates targetCoords) {
-        placingShip.setPlacementColour(Ship.PlacementColour.Placed);
-        player.placeShips(placingShip, tempPlacingCoords.x, tempPlacingCoords.y);
-        placingShipIndex++;
-        if(placingShipIndex < GameGrid.BOATS.length) {
-            placingShip = new Ship(new Coordinates(targetCoords.x, targetCoords.y),
-                    new Coordinates(player.getStartPoint().x + targetCoords.x * GameGrid.SIZE_OF_CELL,
-                            player.getStartPoint().y + targetCoords.y * GameGrid.SIZE_OF_CELL),
-                    GameGrid.BOATS[placingShipIndex], true);
+        engine.placePlayerShip(tempPlacingCoords.x, tempPlacingCoords.y, placingShip.getShipOrientation());
+        player.repaintShip(placingShip);
+        if(engine.getGameState() == GameEngine.GameState.PlacingShips) {
+            placingShip = new Ship(targetCoords,
+                    engine.getPlacingShipLength(), true);
             updateShipPlacement(tempPlacingCoords);
         } else {
-            gameState = GameState.Game;
             statusPanel.setUpLine("Ваш хід!");
             statusPanel.setDownLine("Знищіть усі кораблі, щоб перемогти!");
+            startAIPondering();
         }
     }
 
     /**
      * Спроби обстрілу позиції на сітці комп'ютера.
-     * Після черги гравця, ШІ отримує хід, якщо гра ще не закінчена.
+     * Після черги гравця, ШІ відповідає ходом, обраним наперед, або гравець чекає, доки ШІ його обере,
+     * якщо гра ще не закінчена.
      *
-     * @param mousePosition Координати миші всередині панелі.
+     * @param xMouse X координата миші всередині панелі.
+     * @param yMouse Y координата миші всередині панелі.
      */
-   private void tryFireAtComputer(Coordinates mousePosition) {
-        Coordinates targetPosition = computer.getMousePosition(mousePosition.x,mousePosition.y);
-        if(!computer.isPosMarked(targetPosition)) {
+   private void tryFireAtComputer(int xMouse, int yMouse) {
+        Coordinates targetPosition = computer.getMousePosition(xMouse, yMouse);
+        if(!engine.getComputerGrid().isPosMarked(targetPosition)) {
             doPlayerTurn(targetPosition);
-            if(!computer.allShipsDestroyed()) {
-                doAITurn();
+            if(engine.getGameState() == GameEngine.GameState.Game) {
+                startAITurn();
             }
         }
     }
@@ -200,77 +361,209 @@ public class GameController extends JPanel implements MouseListener, MouseMotion
     /**
      * Обробляє хід гравця залежно від того, де він вибрав атаку.
      * Залежно від результату атаки гравцеві відображається повідомлення,
-     * і якщо він знищив останній корабель, гра оновлюється до виграного стану.
+     * і якщо він знищив останній корабель, показується перемога.
      *
      * @param targetPosition Позиція сітки, яку клацнув гравець.
      */
     private void doPlayerTurn(Coordinates targetPosition) {
-        boolean hit = computer.markCoord(targetPosition);
-        String hitMiss = hit ? "Влучив" : "Промах";
-        String destroyed = "";
-        if (hit && computer.getMarkAtPosition(targetPosition).getShip().shipDestroyed()) {
-            destroyed = "(Знищено)";
-        }
-        statusPanel.setUpLine("Гравець " + hitMiss + " " + targetPosition + destroyed);
-        if (computer.allShipsDestroyed()) {
-            gameState = GameState.GameOver;
+        GameGrid.ShotResult result = engine.firePlayerShot(targetPosition);
+        statusPanel.setUpLine("Гравець " + describeShot(result) + " " + targetPosition + describeSunk(result));
+        if (result == GameGrid.ShotResult.FLEET_DESTROYED) {
             statusPanel.showGameOver(true);
         }
     }
 
     /**
-     * Обробляє хід ШІ за допомогою контролера ШІ для вибору ходу.
-     * Потім обробляє результат, щоб відобразити його гравцеві.
-     * Якщо ШІ знищить останній корабель, гра завершиться перемогою ШІ.
+     * Передає вибір наступного ходу ШІ фоновому потоку, поки гравець обирає свій хід.
+     * Результат завжди повертається в потік подій Swing через aiMoveReady, навіть якщо ШІ кинув виняток:
+     * тоді замість ходу передається -1, а сам виняток разом із трасою стеку отримує обробник
+     * неперехоплених винятків потоку ШІ, бо submit інакше сховав би його в Future.
      */
-    private void doAITurn() {
-        Coordinates aiMove = ai.selectMove();
-        boolean hit = player.markCoord(aiMove);
-        String hitMiss = hit ? "Влучив" : "Промах";
-        String destroyed = "";
-        if(hit && player.getMarkAtPosition(aiMove).getShip().shipDestroyed()) {
-            destroyed = "(Знищено)";
+    private void startAIPondering() {
+        aiPonderedCell = -1;
+        int turn = ++aiTurn;
+        BattleshipAI ai = computerAI;
+        ReentrantLock lock = aiLock;
+        aiTask = aiExecutor.submit(() -> {
+            int cell = -1;
+            RuntimeException failure = null;
+            lock.lock();
+            try {
+                if(turn == aiTurn) cell = ai.selectCell();
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                aiAnsweredTurn = turn;
+                lock.unlock();
+                int move = cell;
+                SwingUtilities.invokeLater(() -> aiMoveReady(turn, move));
+            }
+            if(failure != null) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, failure);
+            }
+        });
+    }
+
+    /**
+     * Починає хід ШІ після пострілу гравця. Якщо хід уже обрано наперед, ШІ стріляє одразу.
+     * Інакше введення гравця блокується до готовності ходу, а якщо ШІ не встигає
+     * за AI_MOVE_DEADLINE_MILLIS, його потік переривається.
+     */
+    private void startAITurn() {
+        if(aiPonderedCell >= 0) {
+            fireAIMove(aiPonderedCell);
+            return;
         }
-        statusPanel.setDownLine("Комп'ютер " + hitMiss + " " + aiMove + destroyed);
-        if(player.allShipsDestroyed()) {
-            gameState = GameState.GameOver;
-            statusPanel.showGameOver(false);
+        aiThinking = true;
+        statusPanel.setDownLine("Комп'ютер думає...");
+        aiDeadline.restart();
+    }
+
+    /**
+     * Приймає хід, обраний ШІ, у потоці подій Swing. Якщо гравець уже чекає, ШІ стріляє,
+     * інакше хід зберігається до пострілу гравця. Хід скасованого ходу ШІ відкидається,
+     * а замість ходу, який ШІ не зміг обрати, береться запасний.
+     *
+     * @param turn Номер ходу ШІ на момент початку вибору.
+     * @param cell Індекс клітинки на сітці гравця, яку обрав ШІ, або -1.
+     */
+    private void aiMoveReady(int turn, int cell) {
+        if(turn != aiTurn) return;
+        aiTask = null;
+        if(cell < 0) cell = fallbackCell();
+        if(aiThinking) {
+            fireAIMove(cell);
+        } else {
+            aiPonderedCell = cell;
         }
     }
 
     /**
-     * Оновлює розташування корабля, якщо миша знаходиться всередині сітки.
+     * Стріляє обраним ходом ШІ і показує результат гравцеві.
+     * Якщо ШІ знищить останній корабель, показується перемога ШІ, інакше ШІ починає обирати наступний хід.
      *
-     * @param mouseCoords Координати миші всередині панелі.
+     * @param cell Індекс клітинки на сітці гравця, яку обрав ШІ.
      */
-    private void tryMovePlacingShip(Coordinates mouseCoords) {
-        if(player.isInside(mouseCoords)) {
-            Coordinates targetPos = player.getMousePosition(mouseCoords.x, mouseCoords.y);
-            updateShipPlacement(targetPos);
+    private void fireAIMove(int cell) {
+        aiDeadline.stop();
+        aiThinking = false;
+        aiPonderedCell = -1;
+        GameGrid.ShotResult result = engine.fireComputerShot(cell);
+        statusPanel.setDownLine("Комп'ютер " + describeShot(result) + " "
+                + Coordinates.ofCell(cell, rules.getWidth()) + describeSunk(result));
+        if(result == GameGrid.ShotResult.FLEET_DESTROYED) {
+            statusPanel.showGameOver(false);
+        } else {
+            startAIPondering();
         }
     }
 
     /**
-     * Обмежує корабель, щоб він поміщався в сітку. Оновлює намальовану позицію корабля,
+     * Спрацьовує, коли гравець чекає на хід ШІ довше за AI_MOVE_DEADLINE_MILLIS.
+     * Перериває потік ШІ: ШІ, що вміє зупинятися, повертає найкращий хід на цей момент.
+     * Якщо ж ШІ зараз не вибирає хід, наприклад завдання скасовано ще до початку, і відповіді не буде,
+     * комп'ютер одразу стріляє запасним ходом.
+     */
+    private void aiDeadlinePassed() {
+        interruptAI();
+        if(!aiThinking || aiAnsweredTurn == aiTurn || !aiLock.tryLock()) return;
+        try {
+            fireAIMove(fallbackCell());
+        } finally {
+            aiLock.unlock();
+        }
+    }
+
+    /**
+     * Отримує запасний хід ШІ: першу ще не обстріляну клітинку сітки гравця.
+     *
+     * @return Індекс клітинки на сітці гравця.
+     */
+    private int fallbackCell() {
+        GameGrid grid = engine.getPlayerGrid();
+        int cell = 0;
+        while(grid.isCellMarked(cell)) cell++;
+        return cell;
+    }
+
+    /**
+     * Перериває потік ШІ, якщо він зараз вибирає хід, або скасовує завдання, що ще не почалося.
+     */
+    private void interruptAI() {
+        if(aiTask != null) aiTask.cancel(true);
+    }
+
+    /**
+     * Скасовує хід ШІ, якщо він обирається або вже обраний наперед: його результат буде відкинуто,
+     * а введення гравця розблоковано.
+     */
+    private void cancelAITurn() {
+        aiTurn++;
+        aiDeadline.stop();
+        interruptAI();
+        aiTask = null;
+        aiThinking = false;
+        aiPonderedCell = -1;
+    }
+
+    /**
+     * Отримує текст для панелі стану про влучення чи промах.
+     *
+     * @param result Результат пострілу.
+     * @return "Влучив" або "Промах".
+     */
+    private String describeShot(GameGrid.ShotResult result) {
+        return result.isHit() ? "Влучив" : "Промах";
+    }
+
+    /**
+     * Отримує позначку для панелі стану, якщо постріл знищив корабель.
+     *
+     * @param result Результат пострілу.
+     * @return "(Знищено)", якщо корабель знищено, інакше порожній рядок.
+     */
+    private String describeSunk(GameGrid.ShotResult result) {
+        return result.isSunk() ? "(Знищено)" : "";
+    }
+
+    /**
+     * Пересуває корабель розміщення до останньої клітинки під курсором, якщо вона змінилася з попереднього оновлення,
+     * і перезапускає hoverThrottle, щоб наступне оновлення відбулося не раніше ніж за кадр.
+     * Обертання корабля оновлює його одразу, тож тут досить порівнювати лише клітинку.
+     */
+    private void applyHover() {
+        if(pendingHoverCell == hoverCell || engine.getGameState() != GameEngine.GameState.PlacingShips) return;
+        hoverCell = pendingHoverCell;
+        updateShipPlacement(Coordinates.ofCell(hoverCell, rules.getWidth()));
+        hoverThrottle.restart();
+    }
+
+    /**
+     * Обмежує корабель, щоб він поміщався в сітку. Оновлює позицію корабля,
      * і змінює колір корабля залежно від того, дійсне чи недійсне розміщення.
+     * Перемальовуються лише старе і нове місце корабля.
      *
      * @param targetCoords Координата сітки, на яку має змінитися розміщений корабель.
      */
     private void updateShipPlacement(Coordinates targetCoords) {
+        int decks = engine.getPlacingShipLength();
+        int x = targetCoords.x;
+        int y = targetCoords.y;
         if(placingShip.getShipOrientation()) {
-            targetCoords.x = Math.min(targetCoords.x, GameGrid.GRID_WIDTH - GameGrid.BOATS[placingShipIndex]);
+            x = Math.min(x, rules.getWidth() - decks);
         } else {
-            targetCoords.y = Math.min(targetCoords.y, GameGrid.GRID_HEIGHT - GameGrid.BOATS[placingShipIndex]);
+            y = Math.min(y, rules.getHeight() - decks);
         }
-        placingShip.setDrawPosition(new Coordinates(targetCoords),
-                new Coordinates(player.getStartPoint().x + targetCoords.x * GameGrid.SIZE_OF_CELL,
-                        player.getStartPoint().y + targetCoords.y * GameGrid.SIZE_OF_CELL));
-        tempPlacingCoords = targetCoords;
-        if(player.isValidShipPlacement(tempPlacingCoords.x, tempPlacingCoords.y,
-                GameGrid.BOATS[placingShipIndex],placingShip.getShipOrientation())) {
-            placingShip.setPlacementColour(Ship.PlacementColour.Аvailable);
+        tempPlacingCoords = Coordinates.of(x, y);
+        player.repaintShip(placingShip);
+        placingShip.setPosition(tempPlacingCoords);
+        player.repaintShip(placingShip);
+        if(engine.getPlayerGrid().isValidShipPlacement(tempPlacingCoords.x, tempPlacingCoords.y,
+                decks, placingShip.getShipOrientation())) {
+            placingShipColour = GridView.PlacementColour.Аvailable;
         } else {
-            placingShip.setPlacementColour(Ship.PlacementColour.NotАvailable);
+            placingShipColour = GridView.PlacementColour.NotАvailable;
         }
     }
 
@@ -278,31 +571,37 @@ public class GameController extends JPanel implements MouseListener, MouseMotion
      * Спрацьовує після відпускання кнопки миші.
      * Якщо в стані PlacingShips і курсор знаходиться всередині сітки гравця, він намагатиметься розмістити корабель.
      * Якщо в стані Game і курсор знаходиться в сітці комп’ютера, він спробує стріляти по комп'ютеру.
+     * Поки ШІ вибирає хід, нічого не робить.
      *
      * @param e Подробиці про те, де сталася подія миші.
      */
     @Override
     public void mouseReleased(MouseEvent e) {
-        Coordinates mouseCoords = new Coordinates(e.getX(), e.getY());
-        if(gameState == GameState.PlacingShips && player.isInside(mouseCoords)) {
-            tryPlaceShip(mouseCoords);
-        } else if(gameState == GameState.Game && computer.isInside(mouseCoords)) {
-            tryFireAtComputer(mouseCoords);
+        if(aiThinking) return;
+        int xMouse = e.getX();
+        int yMouse = e.getY();
+        if(engine.getGameState() == GameEngine.GameState.PlacingShips && player.isInside(xMouse, yMouse)) {
+            tryPlaceShip(xMouse, yMouse);
+        } else if(engine.getGameState() == GameEngine.GameState.Game && computer.isInside(xMouse, yMouse)) {
+            tryFireAtComputer(xMouse, yMouse);
         }
-        repaint();
     }
 
     /**
      * Спрацьовує, коли миша рухається всередині панелі. Нічого не робить, якщо не в стані PlacingShips.
-     * Спробує перемістити корабель, який зараз розміщено на основі координат миші.
+     * Рухи в межах тієї самої клітинки сітки гравця відкидаються. Зміна клітинки пересуває корабель розміщення одразу,
+     * якщо з попереднього оновлення минув кадр, а інакше лише запам'ятовується і застосовується таймером у кінці кадру,
+     * тож миша з високою частотою опитування не перевіряє розміщення сотні разів на секунду.
      *
      * @param e Подробиці про те, де сталася подія миші.
      */
     @Override
     public void mouseMoved(MouseEvent e) {
-        if(gameState != GameState.PlacingShips) return;
-        tryMovePlacingShip(new Coordinates(e.getX(), e.getY()));
-        repaint();
+        if(engine.getGameState() != GameEngine.GameState.PlacingShips) return;
+        int cell = player.getMouseCell(e.getX(), e.getY());
+        if(cell < 0 || cell == pendingHoverCell) return;
+        pendingHoverCell = cell;
+        if(!hoverThrottle.isRunning()) applyHover();
     }
 
     /**
@@ -0,0 +1,317 @@
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас GameEngine
+ * Логіка однієї гри без залежності від AWT і Swing: розміщення кораблів гравця, черговість пострілів
+ * і зміна стану гри. Гравцем може бути людина, яка передає ходи ззовні, або інший ШІ,
+ * тож рушій можна запускати на сервері без дисплея.
+ */
+public class GameEngine {
+    /**
+     * GameStates, які змінюють спосіб взаємодії.
+     * Розміщення кораблів: у цьому стані гравець може розміщувати кораблі на своїй дошці.
+     * Стан закінчується, коли всі кораблі розміщені.
+     * Game: гравець може атакувати сітку комп’ютера та отримувати відповідь.
+     * Стан закінчується, коли всі кораблі на будь-якій сітці були знищені.
+     * GameOver: коли гравець або комп’ютер знищено, щоб запобігти введенню.
+     * Закінчується, коли гравець виходить або вирішує перезапустити.
+     */
+    public enum GameState { PlacingShips, Game, GameOver }
+
+    /**
+     * Правила гри для обох сіток.
+     */
+    private final GameRules rules;
+    /**
+     * Комп'ютерна сітка для атаки гравця.
+     */
+    private final GameGrid computer;
+    /**
+     * Сітка гравця для атаки комп'ютера.
+     */
+    private final GameGrid player;
+    /**
+     * AI для керування тим, що комп’ютер робитиме кожного ходу.
+     */
+    private BattleshipAI ai;
+    /**
+     * Стан гри, який показує, чи може гравець розміщувати кораблі, атакувати комп’ютер,
+     * або якщо гра вже закінчена.
+     */
+    private GameState gameState;
+    /**
+     * Посилання на те, який корабель має бути розміщений наступним під час стану PlacingShips.
+     */
+    private int placingShipIndex;
+    /**
+     * True, якщо гру закінчено перемогою гравця.
+     */
+    private boolean playerWon;
+    /**
+     * Кількість пострілів гравця в поточній грі.
+     */
+    private int playerShots;
+    /**
+     * Кількість пострілів комп'ютера в поточній грі.
+     */
+    private int computerShots;
+
+    /**
+     * Створює рушій з порожніми сітками за вказаними правилами.
+     * ШІ комп'ютера потрібно встановити через setComputerAI.
+     *
+     * @param rules Правила гри з розміром сітки та складом флоту.
+     */
+    public GameEngine(GameRules rules) {
+        this.rules = rules;
+        computer = new GameGrid(rules);
+        player = new GameGrid(rules);
+        gameState = GameState.PlacingShips;
+    }
+
+    /**
+     * Встановлює ШІ, який атакує сітку гравця. Після кожного пострілу комп'ютера рушій передає ШІ його результат.
+     *
+     * @param ai ШІ, створений за правилами гри рушія.
+     */
+    public void setComputerAI(BattleshipAI ai) {
+        this.ai = ai;
+    }
+
+    /**
+     * Скидає обидві сітки, випадково розставляє кораблі комп'ютера і повертає гру до розміщення кораблів гравця.
+     */
+    public void reset() {
+        computer.reset();
+        player.reset();
+        if(ai != null) ai.reset();
+        computer.makeShips();
+        placingShipIndex = 0;
+        playerWon = false;
+        playerShots = 0;
+        computerShots = 0;
+        gameState = GameState.PlacingShips;
+    }
+
+    /**
+     * Намагається розмістити наступний корабель гравця. Коли всі кораблі розміщені, гра переходить до стану Game.
+     *
+     * @param xGrid X координата на сітці.
+     * @param yGrid Координата Y на сітці.
+     * @param orientation True вказує на горизонталь, а false вказує на вертикаль.
+     * @return Розміщений корабель або null, якщо розміщення недійсне.
+     */
+    public Ship placePlayerShip(int xGrid, int yGrid, boolean orientation) {
+        if(gameState != GameState.PlacingShips) {
+            throw new IllegalStateException("Кораблі можна розміщувати лише на початку гри");
+        }
+        int decks = getPlacingShipLength();
+        if(!player.isValidShipPlacement(xGrid, yGrid, decks, orientation)) return null;
+        Ship ship = new Ship(Coordinates.of(xGrid, yGrid), decks, orientation);
+        player.placeShips(ship, xGrid, yGrid);
+        placingShipIndex++;
+        if(placingShipIndex == rules.getFleetSize()) {
+            gameState = GameState.Game;
+        }
+        return ship;
+    }
+
+    /**
+     * Випадково розставляє весь флот гравця і переходить до стану Game.
+     */
+    public void placePlayerShipsRandomly() {
+        if(gameState != GameState.PlacingShips) {
+            throw new IllegalStateException("Кораблі можна розміщувати лише на початку гри");
+        }
+        player.makeShips();
+        placingShipIndex = rules.getFleetSize();
+        gameState = GameState.Game;
+    }
+
+    /**
+     * Отримує кількість палуб корабля, який гравець має розмістити наступним.
+     *
+     * @return Кількість палуб наступного корабля.
+     */
+    public int getPlacingShipLength() {
+        return rules.getShipLength(placingShipIndex);
+    }
+
+    /**
+     * Обстрілює позицію на сітці комп'ютера. Якщо знищено останній корабель, гра завершується перемогою гравця.
+     *
+     * @param target Позиція на сітці комп'ютера, ще не обстріляна.
+     * @return Результат пострілу.
+     */
+    public GameGrid.ShotResult firePlayerShot(Coordinates target) {
+        return firePlayerShot(computer.cellIndex(target.x, target.y));
+    }
+
+    /**
+     * Обстрілює клітинку на сітці комп'ютера за індексом. Якщо знищено останній корабель, гра завершується перемогою гравця.
+     *
+     * @param cell Індекс клітинки y * ширина + x, ще не обстріляної.
+     * @return Результат пострілу.
+     */
+    public GameGrid.ShotResult firePlayerShot(int cell) {
+        checkShot(computer, cell);
+        playerShots++;
+        GameGrid.ShotResult result = computer.markCell(cell);
+        if(result == GameGrid.ShotResult.FLEET_DESTROYED) {
+            playerWon = true;
+            gameState = GameState.GameOver;
+        }
+        return result;
+    }
+
+    /**
+     * Просить ШІ комп'ютера вибрати наступний хід.
+     *
+     * @return Позиція на сітці гравця, яку обрав ШІ.
+     */
+    public Coordinates selectComputerMove() {
+        return ai.selectMove();
+    }
+
+    /**
+     * Просить ШІ комп'ютера вибрати наступний хід як індекс клітинки.
+     *
+     * @return Індекс клітинки на сітці гравця, яку обрав ШІ.
+     */
+    public int selectComputerCell() {
+        return ai.selectCell();
+    }
+
+    /**
+     * Обстрілює позицію на сітці гравця і передає результат ШІ комп'ютера.
+     * Якщо знищено останній корабель, гра завершується перемогою комп'ютера.
+     *
+     * @param target Позиція на сітці гравця, ще не обстріляна.
+     * @return Результат пострілу.
+     */
+    public GameGrid.ShotResult fireComputerShot(Coordinates target) {
+        return fireComputerShot(player.cellIndex(target.x, target.y));
+    }
+
+    /**
+     * Обстрілює клітинку на сітці гравця за індексом і передає результат ШІ комп'ютера.
+     * Якщо знищено останній корабель, гра завершується перемогою комп'ютера.
+     *
+     * @param cell Індекс клітинки y * ширина + x, ще не обстріляної.
+     * @return Результат пострілу.
+     */
+    public GameGrid.ShotResult fireComputerShot(int cell) {
+        checkShot(player, cell);
+        computerShots++;
+        GameGrid.ShotResult result = player.markCell(cell);
+        if(ai != null) ai.observe(ShotOutcome.of(player, cell, result));
+        if(result == GameGrid.ShotResult.FLEET_DESTROYED) {
+            playerWon = false;
+            gameState = GameState.GameOver;
+        }
+        return result;
+    }
+
+    /**
+     * Догрює гру до кінця, де ходи гравця обирає інший ШІ. Гравець ходить першим.
+     * Якщо флот гравця ще не розміщено, він розставляється випадково.
+     *
+     * @param playerAI ШІ, створений за правилами гри рушія, який ходить за гравця і отримує результати своїх пострілів.
+     * @return True, якщо переміг гравець.
+     */
+    public boolean playOut(BattleshipAI playerAI) {
+        if(gameState == GameState.PlacingShips) {
+            placePlayerShipsRandomly();
+        }
+        while(gameState == GameState.Game) {
+            int target = playerAI.selectCell();
+            playerAI.observe(ShotOutcome.of(computer, target, firePlayerShot(target)));
+            if(gameState == GameState.Game) {
+                fireComputerShot(ai.selectCell());
+            }
+        }
+        return playerWon;
+    }
+
+    /**
+     * Перевіряє, що постріл дозволено в поточному стані гри.
+     *
+     * @param grid Сітка, по якій стріляють.
+     * @param cell Індекс клітинки пострілу.
+     */
+    private void checkShot(GameGrid grid, int cell) {
+        if(gameState != GameState.Game) {
+            throw new IllegalStateException("Постріл неможливий у стані " + gameState);
+        }
+        if(cell < 0 || cell >= rules.getCellCount()) {
+            throw new IllegalArgumentException("Клітинка " + cell + " поза сіткою");
+        }
+        if(grid.isCellMarked(cell)) {
+            throw new IllegalArgumentException("Позицію " + Coordinates.ofCell(cell, rules.getWidth()) + " вже обстріляно");
+        }
+    }
+
+    /**
+     * Отримує поточний стан гри.
+     *
+     * @return Стан гри.
+     */
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    /**
+     * Перевіряє, чи закінчилася гра перемогою гравця.
+     *
+     * @return True, якщо гра закінчена і гравець переміг.
+     */
+    public boolean isPlayerWon() {
+        return gameState == GameState.GameOver && playerWon;
+    }
+
+    /**
+     * Отримує кількість пострілів гравця.
+     *
+     * @return Кількість пострілів гравця в поточній грі.
+     */
+    public int getPlayerShots() {
+        return playerShots;
+    }
+
+    /**
+     * Отримує кількість пострілів комп'ютера.
+     *
+     * @return Кількість пострілів комп'ютера в поточній грі.
+     */
+    public int getComputerShots() {
+        return computerShots;
+    }
+
+    /**
+     * Отримує правила гри.
+     *
+     * @return Правила гри для обох сіток.
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Отримує сітку комп'ютера, яку атакує гравець.
+     *
+     * @return Сітка комп'ютера.
+     */
+    public GameGrid getComputerGrid() {
+        return computer;
+    }
+
+    /**
+     * Отримує сітку гравця, яку атакує комп'ютер.
+     *
+     * @return Сітка гравця.
+     */
+    public GameGrid getPlayerGrid() {
+        return player;
+    }
+}
@@ -1,5 +1,6 @@
-import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -8,117 +9,272 @@ import java.util.Random;
  * Автор: Герасимчук Олександр
  *
  * Клас GameGrid
- * Визначає сітку для зберігання кораблів із сіткою точок
- * вказує на виявлення попадання чи пропуск.
+ * Визначає сітку для зберігання кораблів і пострілів по ній.
+ * Не залежить від AWT, малюванням сітки займається GridView.
  */
-public class GameGrid extends Rectangle {
+public class GameGrid {
     /**
-     * Розмір кожної клітинки сітки в пікселях.
+     * Результат пострілу по сітці.
+     * MISS: постріл не влучив у корабель.
+     * HIT: постріл влучив у корабель, але корабель ще на плаву.
+     * SUNK: постріл знищив останню палубу корабля.
+     * FLEET_DESTROYED: постріл знищив останній корабель сітки.
+     * ALREADY_SHOT: клітинку вже обстріляно раніше, постріл нічого не змінив.
      */
-    public static final int SIZE_OF_CELL = 35;
+    public enum ShotResult {
+        MISS, HIT, SUNK, FLEET_DESTROYED, ALREADY_SHOT;
+
+        /**
+         * Перевіряє, чи постріл влучив у корабель.
+         *
+         * @return True для HIT, SUNK і FLEET_DESTROYED.
+         */
+        public boolean isHit() {
+            return this == HIT || isSunk();
+        }
+
+        /**
+         * Перевіряє, чи постріл знищив корабель.
+         *
+         * @return True для SUNK і FLEET_DESTROYED.
+         */
+        public boolean isSunk() {
+            return this == SUNK || this == FLEET_DESTROYED;
+        }
+    }
+
+    /**
+     * Правила гри, які визначають розмір сітки та склад флоту.
+     */
+    private final GameRules rules;
     /**
      * Кількість комірок сітки на горизонтальній осі.
      */
-    public static final int GRID_WIDTH = 10;
+    private final int gridWidth;
     /**
      * Кількість клітинок сітки на вертикальній осі.
      */
-    public static final int GRID_HEIGHT = 10;
+    private final int gridHeight;
+    /**
+     * Бітовий шар клітинок, які займають кораблі.
+     */
+    private BitBoard shipCells;
+    /**
+     * Бітовий шар клітинок, по яких уже стріляли.
+     */
+    private BitBoard shotCells;
+    /**
+     * Бітовий шар клітинок, де постріл влучив у корабель.
+     */
+    private BitBoard hitCells;
+    /**
+     * Бітовий шар клітинок кораблів разом з їхнім ореолом в одну клітинку,
+     * куди не можна ставити інший корабель.
+     */
+    private BitBoard haloCells;
     /**
-     * Визначення кількості кораблів і кількості палуб кораблів.
+     * Спільна таблиця масок усіх розміщень кораблів для розміру цієї сітки.
      */
-    public static final int[] BOATS = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
+    private final PlacementTable placements;
     /**
-     * Сітка точок для візуального вказівки попадання/промаху при атаках.
+     * Корабель у кожній клітинці за індексом клітинки, або null.
      */
-    private Mark[][] marks = new Mark[GRID_WIDTH][GRID_HEIGHT];
+    private Ship[] shipAtCell;
     /**
      * Список усіх кораблів у цій сітці.
      */
     private List<Ship> ships;
     /**
-     * Спільне випадкове посилання для рандомізації розміщення корабля.
+     * Незмінне представлення списку кораблів для читання ззовні.
+     */
+    private List<Ship> shipsView;
+    /**
+     * Генератор випадкових розстановок флоту.
      */
-    private Random random;
+    private FleetGenerator fleetGenerator;
     /**
-     * Використовується для того, щоб кораблі гравця завжди відображалися.
+     * Буфер для розстановки, яку записує fleetGenerator.
      */
-    private boolean playerShipsVisible;
+    private final int[] layout;
     /**
      * True, коли всі елементи кораблів були знищені.
      */
     private boolean allShipsDestroyed;
+    /**
+     * Кількість палуб усіх кораблів, у які ще не влучили.
+     */
+    private int remainingDecks;
+    /**
+     * Слухачі, яким повідомляється результат кожного нового пострілу.
+     */
+    private List<ShotListener> shotListeners;
+    /**
+     * Спільна таблиця ключів Zobrist для розміру цієї сітки.
+     */
+    private final ZobristKeys zobrist;
+    /**
+     * Хеш Zobrist видимого суперникові стану сітки: промахів, влучень і палуб знищених кораблів.
+     */
+    private long stateHash;
+
+    /**
+     * Налаштовує сітку за класичними правилами.
+     */
+    public GameGrid() {
+        this(GameRules.CLASSIC);
+    }
 
     /**
-     * Налаштовує сітку для створення стандартної конфігурації точок.
+     * Налаштовує порожню сітку за вказаними правилами.
      *
-     * @param x координата X для зміщення сітки в пікселях.
-     * @param y Координата Y для зміщення сітки в пікселях.
+     * @param rules Правила гри з розміром сітки та складом флоту.
      */
-    public GameGrid(int x, int y) {
-        super(x, y, SIZE_OF_CELL *GRID_WIDTH, SIZE_OF_CELL *GRID_HEIGHT);
-        createMarksGrid();
+    public GameGrid(GameRules rules) {
+        this.rules = rules;
+        gridWidth = rules.getWidth();
+        gridHeight = rules.getHeight();
+        int cellCount = rules.getCellCount();
+        shipCells = new BitBoard(cellCount);
+        shotCells = new BitBoard(cellCount);
+        hitCells = new BitBoard(cellCount);
+        haloCells = new BitBoard(cellCount);
+        placements = PlacementTable.forRules(rules);
+        shipAtCell = new Ship[cellCount];
         ships = new ArrayList<>();
-        random = new Random();
-        playerShipsVisible = false;
+        shipsView = Collections.unmodifiableList(ships);
+        shotListeners = new ArrayList<>();
+        fleetGenerator = new FleetGenerator(rules, FleetGenerator.Mode.UNIFORM, new Random().nextLong());
+        layout = new int[rules.getFleetSize()];
+        zobrist = ZobristKeys.forRules(rules);
     }
 
     /**
-     * Малює кораблі, якщо всі показані, або активний режим налагодження, або кожне судно позначено як знищене.
-     * Потім малює всі точки, це показано для атак, здійснених до цього часу, і сітку ліній.
+     * Отримує правила гри цієї сітки.
      *
-     * @param g Посилання на графічний об’єкт для візуалізації.
+     * @return Правила з розміром сітки та складом флоту.
      */
-    public void draw(Graphics g) {
-        for(Ship ship : ships) {
-            if(playerShipsVisible || GameController.debugMode || ship.shipDestroyed()) {
-                ship.draw(g);
-            }
-        }
-        drawMarks(g);
-        drawGrid(g);
+    public GameRules getRules() {
+        return rules;
     }
 
     /**
-     * Змінює стан сітки, щоб відображати всі кораблі, якщо встановлено значення true.
+     * Отримує всі кораблі, розміщені на сітці.
      *
-     * @param playerShipsVisible True зробить усі кораблі в цій сітці видимими.
+     * @return Незмінний список кораблів.
      */
-    public void setShowAllShips(boolean playerShipsVisible) {
-        this.playerShipsVisible = playerShipsVisible;
+    public List<Ship> getShips() {
+        return shipsView;
     }
 
     /**
-     * Скидає GameGrid, повідомляє всім точкам про скидання, видаляє всі кораблі із сітки, робить кораблі невидимими,
-     * жодного корабля не знищено.
+     * Скидає GameGrid, видаляє всі кораблі та постріли із сітки, жодного корабля не знищено.
      */
     public void reset() {
-        for(int x = 0; x < GRID_WIDTH; x++) {
-            for(int y = 0; y < GRID_HEIGHT; y++) {
-                marks[x][y].reset();
-            }
-        }
-        ships.clear();
-        playerShipsVisible = false;
+        clearShips();
+        shotCells.clearAll();
+        hitCells.clearAll();
         allShipsDestroyed = false;
+        stateHash = 0;
     }
 
     /**
-     * Позначає вказану позицію, а потім перевіряє всі кораблі, щоб визначити, чи вони знищені.
+     * Позначає вказану позицію, зменшує лічильник палуб, що залишилися, оновлює хеш стану сітки
+     * і повідомляє слухачів про результат.
+     * Повторний постріл у вже позначену позицію нічого не змінює, слухачам не повідомляється
+     * і повертає ALREADY_SHOT.
      *
      * @param markPos Позиція для позначення.
-     * @return True, якщо позначена позиція була кораблем.
-     */
-    public boolean markCoord(Coordinates markPos) {
-        marks[markPos.x][markPos.y].mark();
-        allShipsDestroyed = true;
-        for(Ship ship : ships) {
-            if(!ship.shipDestroyed()) {
-                allShipsDestroyed = false;
-                break;
+     * @return Результат пострілу.
+     */
+    public ShotResult markCoord(Coordinates markPos) {
+        return markCell(cellIndex(markPos.x, markPos.y));
+    }
+
+    /**
+     * Позначає клітинку за індексом так само, як markCoord, але без жодного об'єкта позиції.
+     * Слухачі отримують незмінну позицію зі спільного кешу Coordinates.
+     *
+     * @param cell Індекс клітинки y * ширина + x.
+     * @return Результат пострілу.
+     */
+    public ShotResult markCell(int cell) {
+        if(shotCells.get(cell)) return ShotResult.ALREADY_SHOT;
+        Ship ship = shipAtCell[cell];
+        shotCells.set(cell);
+        ShotResult result = ShotResult.MISS;
+        if(ship != null) {
+            hitCells.set(cell);
+            ship.registerHit(cell);
+            stateHash ^= zobrist.key(cell, ZobristKeys.CellState.HIT);
+            remainingDecks--;
+            if(remainingDecks == 0) {
+                allShipsDestroyed = true;
+                result = ShotResult.FLEET_DESTROYED;
+            } else {
+                result = ship.shipDestroyed() ? ShotResult.SUNK : ShotResult.HIT;
             }
+            if(result.isSunk()) hashSunk(ship);
+        } else {
+            stateHash ^= zobrist.key(cell, ZobristKeys.CellState.MISS);
         }
-        return marks[markPos.x][markPos.y].isHasShip();
+        if(!shotListeners.isEmpty()) {
+            Coordinates markPos = Coordinates.ofCell(cell, gridWidth);
+            for(int i = 0; i < shotListeners.size(); i++) {
+                shotListeners.get(i).shotResolved(this, markPos, result, ship);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Переводить у хеші всі палуби знищеного корабля зі стану HIT у стан SUNK.
+     *
+     * @param ship Щойно знищений корабель.
+     */
+    private void hashSunk(Ship ship) {
+        for(int i = 0; i < ship.getNumberOfDeck(); i++) {
+            int deck = ship.getDeckCell(i);
+            stateHash ^= zobrist.key(deck, ZobristKeys.CellState.HIT) ^ zobrist.key(deck, ZobristKeys.CellState.SUNK);
+        }
+    }
+
+    /**
+     * Отримує хеш Zobrist видимого суперникові стану сітки: які клітинки обстріляні
+     * і в яких із них промах, влучення чи палуба знищеного корабля. Розташування неуражених кораблів
+     * у хеш не входить, тож однакові для суперника стани мають однаковий хеш.
+     * Хеш оновлюється за O(1) на кожен постріл і однаковий у всіх запусках програми.
+     *
+     * @return 64-бітний хеш стану або 0 для сітки без пострілів.
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    /**
+     * Додає слухача результатів пострілів по цій сітці.
+     *
+     * @param listener Слухач для додавання.
+     */
+    public void addShotListener(ShotListener listener) {
+        shotListeners.add(listener);
+    }
+
+    /**
+     * Видаляє слухача результатів пострілів.
+     *
+     * @param listener Слухач для видалення.
+     */
+    public void removeShotListener(ShotListener listener) {
+        shotListeners.remove(listener);
+    }
+
+    /**
+     * Отримує кількість палуб, у які ще не влучили.
+     *
+     * @return Кількість неуражених палуб усіх кораблів.
+     */
+    public int getRemainingDecks() {
+        return remainingDecks;
     }
 
     /**
@@ -137,35 +293,64 @@ public class GameGrid extends Rectangle {
      * @return True, якщо маркер у вказаній позиції позначено.
      */
     public boolean isPosMarked(Coordinates markPos) {
-        return marks[markPos.x][markPos.y].isMarked();
+        return shotCells.get(cellIndex(markPos.x, markPos.y));
+    }
+
+    /**
+     * Перевіряє, чи у вказаній позиції стоїть корабель.
+     *
+     * @param pos Позиція для перевірки.
+     * @return True, якщо клітинку займає корабель.
+     */
+    public boolean isShipAt(Coordinates pos) {
+        return shipCells.get(cellIndex(pos.x, pos.y));
+    }
+
+    /**
+     * Отримує корабель у вказаній позиції.
+     *
+     * @param pos Позиція на сітці.
+     * @return Корабель у цій позиції або null, якщо клітинка порожня.
+     */
+    public Ship getShipAt(Coordinates pos) {
+        return shipAtCell[cellIndex(pos.x, pos.y)];
     }
 
     /**
-     * Отримує точку у вказаній позиції, для надання штучному інтелекту більшого доступу до даних у сітці.
+     * Перевіряє, чи клітинка позначена.
      *
-     * @param markedPos Позиція на сітці для вибору точки.
-     * @return Повертає посилання на точку у вказаній позиції.
+     * @param cell Індекс клітинки.
+     * @return True, якщо по клітинці вже стріляли.
      */
-    public Mark getMarkAtPosition(Coordinates markedPos) {
-        return marks[markedPos.x][markedPos.y];
+    public boolean isCellMarked(int cell) {
+        return shotCells.get(cell);
     }
 
     /**
-     * Передає позицію миші на координатну сітку.
+     * Перевіряє, чи клітинку займає корабель.
      *
-     * @param xMouse X координата миші.
-     * @param yMouse Y координата миші.
-     * @return Повертає або (-1,-1) для недійсної позиції, або відповідну позицію сітки, пов’язану з координатами.
+     * @param cell Індекс клітинки.
+     * @return True, якщо клітинку займає корабель.
      */
-    public Coordinates getMousePosition(int xMouse, int yMouse) {
-        if(!isInside(new Coordinates(xMouse, yMouse))) return new Coordinates(-1,-1);
-        return new Coordinates((xMouse - startPoint.x)/ SIZE_OF_CELL, (yMouse - startPoint.y)/ SIZE_OF_CELL);
+    public boolean isShipAtCell(int cell) {
+        return shipCells.get(cell);
+    }
+
+    /**
+     * Отримує корабель у клітинці.
+     *
+     * @param cell Індекс клітинки.
+     * @return Корабель у цій клітинці або null, якщо клітинка порожня.
+     */
+    public Ship getShipAtCell(int cell) {
+        return shipAtCell[cell];
     }
 
     /**
      * Перевіряє, чи буде корабель із зазначеними властивостями дійсним для розміщення,
      * чи вписується корабель у межі сітки, чи всі палуби потраплять на місця, де ще не стоїть корабель.
-     * Це обробляється окремо залежно від того, це горизонтальний чи вертикальний корабель.
+     * Готова маска палуб корабля з PlacementTable порівнюється з шаром ореолів уже розміщених кораблів,
+     * або лише з шаром кораблів, якщо правила дозволяють кораблям торкатися.
      *
      * @param xGrid Координата X сітки.
      * @param yGrid Координата Y сітки.
@@ -174,96 +359,86 @@ public class GameGrid extends Rectangle {
      * @return True, якщо корабель може бути розміщений із зазначеними властивостями.
      */
     public boolean isValidShipPlacement(int xGrid, int yGrid, int decks, boolean orientation) {
-        if (xGrid < 0 || yGrid < 0) return false;
-
-        if (orientation) {
-            if (yGrid > GRID_HEIGHT || xGrid + decks > GRID_WIDTH) return false;
+        if (decks < 1 || decks > Math.max(gridWidth, gridHeight)) return false;
 
-            for (int x = xGrid - 1; x <= xGrid + decks; x++) {
-                for (int y = yGrid - 1; y <= yGrid + 1; y++) {
-                    if (x >= 0 && y >= 0 && x < GRID_WIDTH && y < GRID_HEIGHT) {
-                        if (marks[x][y].isHasShip()) return false;
-                    }
-                }
-            }
-        } else {
-            if (yGrid + decks > GRID_HEIGHT || xGrid > GRID_WIDTH) return false;
-
-            for (int x = xGrid - 1; x <= xGrid + 1; x++) {
-                for (int y = yGrid - 1; y <= yGrid + decks; y++) {
-                    if (x >= 0 && y >= 0 && x < GRID_WIDTH && y < GRID_HEIGHT) {
-                        if (marks[x][y].isHasShip()) return false;
-                    }
-                }
-            }
-        }
-
-        return true;
+        PlacementTable.Placements table = placements.forLength(decks);
+        int placement = table.indexOf(xGrid, yGrid, orientation);
+        if (placement < 0) return false;
+        return !table.footprintIntersects(placement, rules.shipsMayTouch() ? shipCells : haloCells);
     }
 
+    /**
+     * Отримує індекс клітинки в бітових шарах.
+     *
+     * @param x Координата X сітки.
+     * @param y Координата Y сітки.
+     * @return Індекс клітинки y * ширина + x.
+     */
+    public int cellIndex(int x, int y) {
+        return y * gridWidth + x;
+    }
 
+    /**
+     * Видаляє всі кораблі з сітки та бітових шарів.
+     */
+    private void clearShips() {
+        ships.clear();
+        remainingDecks = 0;
+        shipCells.clearAll();
+        haloCells.clearAll();
+        Arrays.fill(shipAtCell, null);
+    }
 
     /**
-     * Малює сітку з чорних ліній.
-     *
-     * @param g Посилання на графічний об’єкт для візуалізації.
-     */
-    private void drawGrid(Graphics g) {
-        g.setColor(Color.BLACK);
-        int y2 = startPoint.y;
-        int y1 = startPoint.y+height;
-        for(int x = 0; x <= GRID_WIDTH; x++)
-            g.drawLine(startPoint.x+x * SIZE_OF_CELL, y1, startPoint.x+x * SIZE_OF_CELL, y2);
-        int x2 = startPoint.x;
-        int x1 = startPoint.x+width;
-        for(int y = 0; y <= GRID_HEIGHT; y++)
-            g.drawLine(x1, startPoint.y+y * SIZE_OF_CELL, x2, startPoint.y+y * SIZE_OF_CELL);
+     * Очищає всі поточні кораблі, а потім випадково розміщує всі кораблі флоту з правил за допомогою FleetGenerator.
+     * За замовчуванням усі допустимі розстановки рівноймовірні.
+     */
+    public void makeShips() {
+        fleetGenerator.generate(layout, 0);
+        placeLayout(layout, 0);
     }
 
     /**
-     * Малює всі точки. Точки індивідуально визначать, чи потрібно їх малювати.
+     * Змінює спосіб генерації розстановок для makeShips.
      *
-     * @param g Посилання на графічний об’єкт для візуалізації.
+     * @param mode FAST для швидкої генерації або UNIFORM для рівноймовірних розстановок.
      */
-    private void drawMarks(Graphics g) {
-        for(int x = 0; x < GRID_WIDTH; x++) {
-            for(int y = 0; y < GRID_HEIGHT; y++) {
-                marks[x][y].draw(g);
-            }
+    public void setFleetMode(FleetGenerator.Mode mode) {
+        if(fleetGenerator.getMode() != mode) {
+            fleetGenerator = new FleetGenerator(rules, mode, new Random().nextLong());
         }
     }
 
     /**
-     * Створює всі точки, встановлюючи їхні позиції малювання на сітці.
+     * Отримує кількість розстановок makeShips, для яких UNIFORM не встиг і використано FAST,
+     * з часу останньої зміни способу генерації.
+     *
+     * @return Кількість переходів до FAST.
      */
-    private void createMarksGrid() {
-        for(int x = 0; x < GRID_WIDTH; x++) {
-            for (int y = 0; y < GRID_HEIGHT; y++) {
-                marks[x][y] = new Mark(startPoint.x+x* SIZE_OF_CELL, startPoint.y + y* SIZE_OF_CELL, SIZE_OF_CELL, SIZE_OF_CELL);
-            }
-        }
+    public long getUniformFallbacks() {
+        return fleetGenerator.getUniformFallbacks();
     }
 
     /**
-     * Очищає всі поточні кораблі, а потім випадковим чином розміщує всі кораблі.
-     * Цей метод передбачає наявність достатньо місця для розміщення всіх кораблів незалежно від конфігурації.
+     * Очищає всі поточні кораблі і розміщує розстановку, згенеровану FleetGenerator для цих правил.
+     *
+     * @param layouts Буфер з номером розміщення кожного корабля у порядку флоту з правил.
+     * @param offset Індекс у буфері, з якого починається розстановка.
      */
-    public void makeShips() {
-        ships.clear();
-        for(int i = 0; i < BOATS.length; i++) {
-            boolean orientation = random.nextBoolean();
-            int xGrid, yGrid;
-            do {
-                xGrid = random.nextInt(orientation ?GRID_WIDTH- BOATS[i]:GRID_WIDTH);
-                yGrid = random.nextInt(orientation ?GRID_HEIGHT:GRID_HEIGHT- BOATS[i]);
-            } while(!isValidShipPlacement(xGrid, yGrid, BOATS[i], orientation));
-            placeShips(xGrid, yGrid, BOATS[i], orientation);
+    public void placeLayout(int[] layouts, int offset) {
+        clearShips();
+        for(int i = 0; i < rules.getFleetSize(); i++) {
+            PlacementTable.Placements table = placements.forLength(rules.getShipLength(i));
+            int placement = layouts[offset + i];
+            int start = table.getStartCell(placement);
+            Ship ship = new Ship(Coordinates.ofCell(start, gridWidth), table.getLength(), table.isHorizontal(placement));
+            placeShip(ship, table, placement);
         }
     }
 
     /**
      * Розміщує на сітці корабель із зазначеними властивостями.
-     * Вказує клітинкам точок, що це корабель поверх них, щоб використовувати для розміщення інших кораблів і виявлення ударів.
+     * Записує корабель у бітові шари, щоб використовувати їх для розміщення інших кораблів і виявлення ударів.
      * Використовується для корабля вказаного по координатах з орієнтацією.
      *
      * @param xGrid X координата на сітці.
@@ -272,14 +447,12 @@ public class GameGrid extends Rectangle {
      * @param orientation True вказує на горизонталь, а false вказує на вертикаль.
      */
     public void placeShips(int xGrid, int yGrid, int decks, boolean orientation) {
-        placeShips(new Ship(new Coordinates(xGrid, yGrid),
-                new Coordinates(startPoint.x+ xGrid * SIZE_OF_CELL, startPoint.y+ yGrid * SIZE_OF_CELL),
-                decks, orientation), xGrid, yGrid);
+        placeShips(new Ship(Coordinates.of(xGrid, yGrid), decks, orientation), xGrid, yGrid);
     }
 
     /**
-     * Розміщує на сітці корабель із зазначеними властивостями. Вказує клітинкам точок, що це корабель
-     * поверх них, щоб використовувати для розміщення інших кораблів і виявлення ударів.
+     * Розміщує на сітці корабель із зазначеними властивостями. Записує корабель у бітові шари,
+     * щоб використовувати їх для розміщення інших кораблів і виявлення ударів.
      * Використовується для готового корабля.
      *
      * @param ship Корабель для розміщення в сітці з уже налаштованими властивостями.
@@ -287,15 +460,30 @@ public class GameGrid extends Rectangle {
      * @param yGrid Координата Y на сітці.
      */
     public void placeShips(Ship ship, int xGrid, int yGrid) {
+        PlacementTable.Placements table = placements.forLength(ship.getNumberOfDeck());
+        int placement = table.indexOf(xGrid, yGrid, ship.getShipOrientation());
+        if(placement < 0) {
+            throw new IllegalArgumentException("Корабель з " + ship.getNumberOfDeck() + " палуб не вміщується в позиції "
+                    + Coordinates.of(xGrid, yGrid));
+        }
+        placeShip(ship, table, placement);
+    }
+
+    /**
+     * Записує корабель у сітку за його розміщенням: маска клітинок і маска ореолу беруться з PlacementTable.
+     *
+     * @param ship Корабель для розміщення.
+     * @param table Розміщення кораблів довжини цього корабля.
+     * @param placement Номер розміщення корабля.
+     */
+    private void placeShip(Ship ship, PlacementTable.Placements table, int placement) {
+        ship.setPlacement(table, placement);
         ships.add(ship);
-        if(ship.getShipOrientation()) {
-            for(int x = 0; x < ship.getNumberOfDeck(); x++) {
-                marks[xGrid +x][yGrid].markShip(ships.get(ships.size()-1));
-            }
-        } else {
-            for(int y = 0; y < ship.getNumberOfDeck(); y++) {
-                marks[xGrid][yGrid +y].markShip(ships.get(ships.size()-1));
-            }
+        remainingDecks += ship.getNumberOfDeck();
+        ship.addFootprint(shipCells);
+        ship.addHalo(haloCells);
+        for(int i = 0; i < ship.getNumberOfDeck(); i++) {
+            shipAtCell[ship.getDeckCell(i)] = ship;
         }
     }
 }
\ No newline at end of file
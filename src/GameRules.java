@@ -0,0 +1,133 @@
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас GameRules
+ * Незмінні правила однієї гри: розмір сітки, склад флоту та чи можуть кораблі торкатися один одного.
+ */
+public class GameRules {
+    /**
+     * Класичні правила: сітка 10x10, один чотирипалубний, два трипалубні, три двопалубні,
+     * чотири однопалубні кораблі, кораблі не торкаються.
+     */
+    public static final GameRules CLASSIC = new GameRules(10, 10, new int[] {4, 3, 3, 2, 2, 2, 1, 1, 1, 1}, false);
+    /**
+     * Кількість комірок сітки на горизонтальній осі.
+     */
+    private final int width;
+    /**
+     * Кількість клітинок сітки на вертикальній осі.
+     */
+    private final int height;
+    /**
+     * Кількість палуб кожного корабля флоту в порядку розміщення.
+     */
+    private final int[] fleet;
+    /**
+     * True, якщо кораблі можуть стояти впритул один до одного.
+     */
+    private final boolean shipsMayTouch;
+    /**
+     * Загальна кількість палуб усього флоту.
+     */
+    private final int totalDecks;
+
+    /**
+     * Створює правила гри.
+     *
+     * @param width Кількість клітинок по горизонталі.
+     * @param height Кількість клітинок по вертикалі.
+     * @param fleet Кількість палуб кожного корабля в порядку розміщення.
+     * @param shipsMayTouch True дозволяє кораблям стояти впритул один до одного.
+     */
+    public GameRules(int width, int height, int[] fleet, boolean shipsMayTouch) {
+        if(width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Розмір сітки має бути додатним: " + width + "x" + height);
+        }
+        int total = 0;
+        for(int decks : fleet) {
+            if(decks <= 0 || decks > Math.max(width, height)) {
+                throw new IllegalArgumentException("Корабель з " + decks + " палубами не поміщається на сітці " + width + "x" + height);
+            }
+            total += decks;
+        }
+        this.width = width;
+        this.height = height;
+        this.fleet = fleet.clone();
+        this.shipsMayTouch = shipsMayTouch;
+        this.totalDecks = total;
+    }
+
+    /**
+     * Отримує ширину сітки.
+     *
+     * @return Кількість клітинок по горизонталі.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Отримує висоту сітки.
+     *
+     * @return Кількість клітинок по вертикалі.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Отримує загальну кількість клітинок сітки.
+     *
+     * @return Ширина, помножена на висоту.
+     */
+    public int getCellCount() {
+        return width * height;
+    }
+
+    /**
+     * Отримує кількість кораблів у флоті.
+     *
+     * @return Кількість кораблів.
+     */
+    public int getFleetSize() {
+        return fleet.length;
+    }
+
+    /**
+     * Отримує кількість палуб корабля флоту.
+     *
+     * @param index Порядковий номер корабля у флоті.
+     * @return Кількість палуб корабля.
+     */
+    public int getShipLength(int index) {
+        return fleet[index];
+    }
+
+    /**
+     * Отримує копію складу флоту.
+     *
+     * @return Кількість палуб кожного корабля в порядку розміщення.
+     */
+    public int[] getFleet() {
+        return fleet.clone();
+    }
+
+    /**
+     * Отримує загальну кількість палуб флоту.
+     *
+     * @return Сума палуб усіх кораблів.
+     */
+    public int getTotalDecks() {
+        return totalDecks;
+    }
+
+    /**
+     * Перевіряє, чи можуть кораблі стояти впритул.
+     *
+     * @return True, якщо кораблі можуть торкатися один одного.
+     */
+    public boolean shipsMayTouch() {
+        return shipsMayTouch;
+    }
+}
@@ -0,0 +1,338 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас GridView
+ * Відображає GameGrid на екрані: кораблі, точки пострілів і сітку ліній.
+ * Слухає постріли по сітці, щоб позначати точки без опитування стану сітки
+ * і перемальовувати лише клітинку пострілу або знищений корабель.
+ * Сітка малюється шарами: кораблі, шар точок пострілів і шар ліній сітки зверху. Лінії малюються в свій шар
+ * один раз, а точка додається в шар точок лише при новому пострілі. Шари зводяться в готовий кадр сітки,
+ * який оновлюється лише в зміненій області або повністю при скиданні чи зміні набору видимих кораблів,
+ * тож малювання сітки коштує одне копіювання непрозорого зображення.
+ */
+public class GridView extends Rectangle implements ShotListener {
+    /**
+     * Використовується для зміни кольору розміщення.
+     * Аvailable: корабель можна розмістити в поточному місці, яке показано зеленим кольором.
+     * NotАvailable: корабель не можна розмістити в поточному місці, яке показано червоним кольором.
+     * Placed: корабель розміщений і використовуватиме налаштування кольору за замовчуванням.
+     */
+    public enum PlacementColour {Аvailable, NotАvailable, Placed}
+    /**
+     * Розмір кожної клітинки сітки в пікселях.
+     */
+    public static final int SIZE_OF_CELL = 35;
+    /**
+     * Сітка, яка відображається.
+     */
+    private GameGrid grid;
+    /**
+     * Сітка точок для візуального вказівки попадання/промаху при атаках.
+     */
+    private Mark[][] marks;
+    /**
+     * Використовується для того, щоб кораблі гравця завжди відображалися.
+     */
+    private boolean playerShipsVisible;
+    /**
+     * Шар з лініями сітки, прозорий поза ними.
+     */
+    private BufferedImage gridLayer;
+    /**
+     * Шар з точками пострілів, прозорий поза ними.
+     */
+    private BufferedImage marksLayer;
+    /**
+     * Зведений кадр сітки: фон поверхні, видимі кораблі, точки і лінії.
+     * Непрозорий, якщо відомий непрозорий фон поверхні, інакше з прозорим фоном.
+     */
+    private BufferedImage frame;
+    /**
+     * True, якщо кадр треба звести заново повністю.
+     */
+    private boolean frameInvalid;
+    /**
+     * Кількість кораблів сітки, коли кадр зводився повністю востаннє.
+     */
+    private int frameShipCount;
+    /**
+     * Режим налагодження, коли кадр зводився повністю востаннє.
+     */
+    private boolean frameDebug;
+
+    /**
+     * Налаштовує відображення сітки і підписується на постріли по ній.
+     *
+     * @param grid Сітка для відображення.
+     * @param x координата X для зміщення сітки в пікселях.
+     * @param y Координата Y для зміщення сітки в пікселях.
+     */
+    public GridView(GameGrid grid, int x, int y) {
+        super(x, y, SIZE_OF_CELL * grid.getRules().getWidth(), SIZE_OF_CELL * grid.getRules().getHeight());
+        this.grid = grid;
+        marks = new Mark[grid.getRules().getWidth()][grid.getRules().getHeight()];
+        createMarksGrid();
+        grid.addShotListener(this);
+        playerShipsVisible = false;
+    }
+
+    /**
+     * Отримує сітку, яка відображається.
+     *
+     * @return Сітка цього відображення.
+     */
+    public GameGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Малює кораблі, якщо всі показані, або активний режим налагодження, або кожне судно позначено як знищене.
+     * Потім малює всі точки, це показано для атак, здійснених до цього часу, і сітку ліній.
+     * Усе копіюється з готового кадру; кадр спочатку зводиться заново, якщо набір видимих кораблів змінився.
+     *
+     * @param g Посилання на графічний об’єкт для візуалізації.
+     */
+    public void draw(Graphics g) {
+        if(frame == null) createLayers();
+        if(frameInvalid || frameShipCount != grid.getShips().size() || frameDebug != GameController.debugMode) {
+            composeFrame(startPoint.x, startPoint.y, frame.getWidth(), frame.getHeight());
+            frameInvalid = false;
+            frameShipCount = grid.getShips().size();
+            frameDebug = GameController.debugMode;
+        }
+        g.drawImage(frame, startPoint.x, startPoint.y, null);
+    }
+
+    /**
+     * Малює корабель, спочатку вибираючи колір, а потім малюючи корабель у правильному напрямку.
+     * Вибирає колір залежно від того чи можна розмістити корабель і чи він не знищений.
+     *
+     * @param g Посилання на графічний об’єкт для візуалізації.
+     * @param ship Корабель для малювання.
+     * @param placementColour Аvailable - зелений, NotАvailable - червоний, Placed - колір за замовчуванням.
+     */
+    public void drawShip(Graphics g, Ship ship, PlacementColour placementColour) {
+        if(placementColour == PlacementColour.Placed) {
+            g.setColor(ship.shipDestroyed() ? SpriteAtlas.DESTROYED_COLOUR : SpriteAtlas.SHIP_COLOUR);
+        } else {
+            g.setColor(placementColour == PlacementColour.Аvailable ? SpriteAtlas.AVAILABLE_COLOUR : SpriteAtlas.DESTROYED_COLOUR);
+        }
+        Coordinates shipCoord = ship.getPosition();
+        int drawX = startPoint.x + shipCoord.x * SIZE_OF_CELL;
+        int drawY = startPoint.y + shipCoord.y * SIZE_OF_CELL;
+        int length = SIZE_OF_CELL * ship.getNumberOfDeck();
+        if(ship.getShipOrientation()) {
+            g.fillRect(drawX, drawY, length, SIZE_OF_CELL);
+        } else {
+            g.fillRect(drawX, drawY, SIZE_OF_CELL, length);
+        }
+    }
+
+    /**
+     * Просить поверхню перемалювати лише клітинки, які займає корабель.
+     *
+     * @param ship Корабель, область якого змінилася.
+     */
+    public void repaintShip(Ship ship) {
+        Coordinates shipCoord = ship.getPosition();
+        int drawX = startPoint.x + shipCoord.x * SIZE_OF_CELL;
+        int drawY = startPoint.y + shipCoord.y * SIZE_OF_CELL;
+        int length = SIZE_OF_CELL * ship.getNumberOfDeck();
+        if(ship.getShipOrientation()) {
+            repaint(drawX, drawY, length, SIZE_OF_CELL);
+        } else {
+            repaint(drawX, drawY, SIZE_OF_CELL, length);
+        }
+    }
+
+    /**
+     * Позначає точку пострілу, коли сітка повідомляє про новий постріл, і перемальовує
+     * клітинку пострілу або, якщо корабель знищено, весь корабель.
+     *
+     * @param grid Сітка, по якій стріляли.
+     * @param pos Позиція пострілу.
+     * @param result Результат пострілу.
+     * @param ship Корабель, у який влучили, або null у разі промаху.
+     */
+    @Override
+    public void shotResolved(GameGrid grid, Coordinates pos, GameGrid.ShotResult result, Ship ship) {
+        int cellX = startPoint.x + pos.x * SIZE_OF_CELL;
+        int cellY = startPoint.y + pos.y * SIZE_OF_CELL;
+        if(marks[pos.x][pos.y].mark(result.isHit()) && frame != null) {
+            Graphics2D g = layerGraphics(marksLayer);
+            marks[pos.x][pos.y].draw(g);
+            g.dispose();
+            composeFrame(cellX, cellY, SIZE_OF_CELL, SIZE_OF_CELL);
+        }
+        if(result.isSunk() && ship != null) {
+            frameInvalid = true;
+            repaintShip(ship);
+        } else {
+            repaint(cellX, cellY, SIZE_OF_CELL, SIZE_OF_CELL);
+        }
+    }
+
+    /**
+     * Змінює стан сітки, щоб відображати всі кораблі, якщо встановлено значення true.
+     *
+     * @param playerShipsVisible True зробить усі кораблі в цій сітці видимими.
+     */
+    public void setShowAllShips(boolean playerShipsVisible) {
+        this.playerShipsVisible = playerShipsVisible;
+        frameInvalid = true;
+    }
+
+    /**
+     * Скидає всі точки і робить кораблі невидимими. Шар точок очищається, а кадр буде зведено заново.
+     */
+    public void reset() {
+        for(Mark[] column : marks) {
+            for(Mark mark : column) {
+                mark.reset();
+            }
+        }
+        playerShipsVisible = false;
+        frameInvalid = true;
+        if(marksLayer != null) clearLayer(marksLayer);
+    }
+
+    /**
+     * Передає позицію миші на координатну сітку.
+     *
+     * @param xMouse X координата миші.
+     * @param yMouse Y координата миші.
+     * @return Повертає або (-1,-1) для недійсної позиції, або відповідну позицію сітки, пов’язану з координатами.
+     */
+    public Coordinates getMousePosition(int xMouse, int yMouse) {
+        if(!isInside(xMouse, yMouse)) return Coordinates.of(-1,-1);
+        return Coordinates.of((xMouse - startPoint.x)/ SIZE_OF_CELL, (yMouse - startPoint.y)/ SIZE_OF_CELL);
+    }
+
+    /**
+     * Передає позицію миші на індекс клітинки сітки без створення позиції.
+     *
+     * @param xMouse X координата миші.
+     * @param yMouse Y координата миші.
+     * @return Індекс клітинки y * ширина + x або -1 для недійсної позиції.
+     */
+    public int getMouseCell(int xMouse, int yMouse) {
+        if(!isInside(xMouse, yMouse)) return -1;
+        return (yMouse - startPoint.y) / SIZE_OF_CELL * grid.getRules().getWidth() + (xMouse - startPoint.x) / SIZE_OF_CELL;
+    }
+
+    /**
+     * Створює шари і кадр: малює лінії сітки і всі вже видимі точки. Кадр буде зведено при першому малюванні.
+     * Шари на один піксель більші за сітку, бо праві й нижні лінії лежать на її межі.
+     */
+    private void createLayers() {
+        gridLayer = new BufferedImage(width + 1, height + 1, BufferedImage.TYPE_INT_ARGB);
+        marksLayer = new BufferedImage(width + 1, height + 1, BufferedImage.TYPE_INT_ARGB);
+        boolean opaque = surface != null && surface.getBackground() != null && surface.getBackground().getAlpha() == 255;
+        frame = new BufferedImage(width + 1, height + 1, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = layerGraphics(gridLayer);
+        drawGrid(g);
+        g.dispose();
+        g = layerGraphics(marksLayer);
+        drawMarks(g);
+        g.dispose();
+        frameInvalid = true;
+    }
+
+    /**
+     * Зводить область кадру заново: фон, видимі кораблі, шар точок і шар ліній.
+     *
+     * @param x X координата лівого верхнього кута області в координатах панелі.
+     * @param y Y координата лівого верхнього кута області в координатах панелі.
+     * @param width Ширина області.
+     * @param height Висота області.
+     */
+    private void composeFrame(int x, int y, int width, int height) {
+        Graphics2D g = layerGraphics(frame);
+        g.clipRect(x, y, width, height);
+        if(frame.getTransparency() == Transparency.OPAQUE) {
+            g.setColor(surface.getBackground());
+            g.fillRect(x, y, width, height);
+        } else {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(x, y, width, height);
+            g.setComposite(AlphaComposite.SrcOver);
+        }
+        for(Ship ship : grid.getShips()) {
+            if(playerShipsVisible || GameController.debugMode || ship.shipDestroyed()) {
+                drawShip(g, ship, PlacementColour.Placed);
+            }
+        }
+        g.drawImage(marksLayer, startPoint.x, startPoint.y, null);
+        g.drawImage(gridLayer, startPoint.x, startPoint.y, null);
+        g.dispose();
+    }
+
+    /**
+     * Отримує графічний об'єкт шару, зсунутий так, щоб у ньому можна було малювати в координатах панелі.
+     *
+     * @param layer Шар або кадр сітки.
+     * @return Графічний об'єкт, який треба звільнити після малювання.
+     */
+    private Graphics2D layerGraphics(BufferedImage layer) {
+        Graphics2D g = layer.createGraphics();
+        g.translate(-startPoint.x, -startPoint.y);
+        return g;
+    }
+
+    /**
+     * Робить шар повністю прозорим.
+     *
+     * @param layer Шар сітки.
+     */
+    private void clearLayer(BufferedImage layer) {
+        Graphics2D g = layer.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, layer.getWidth(), layer.getHeight());
+        g.dispose();
+    }
+
+    /**
+     * Малює сітку з чорних ліній.
+     *
+     * @param g Посилання на графічний об’єкт для візуалізації.
+     */
+    private void drawGrid(Graphics g) {
+        g.setColor(Color.BLACK);
+        int y2 = startPoint.y;
+        int y1 = startPoint.y+height;
+        for(int x = 0; x <= marks.length; x++)
+            g.drawLine(startPoint.x+x * SIZE_OF_CELL, y1, startPoint.x+x * SIZE_OF_CELL, y2);
+        int x2 = startPoint.x;
+        int x1 = startPoint.x+width;
+        for(int y = 0; y <= marks[0].length; y++)
+            g.drawLine(x1, startPoint.y+y * SIZE_OF_CELL, x2, startPoint.y+y * SIZE_OF_CELL);
+    }
+
+    /**
+     * Малює всі точки. Точки індивідуально визначать, чи потрібно їх малювати.
+     *
+     * @param g Посилання на графічний об’єкт для візуалізації.
+     */
+    private void drawMarks(Graphics g) {
+        for(Mark[] column : marks) {
+            for(Mark mark : column) {
+                mark.draw(g);
+            }
+        }
+    }
+
+    /**
+     * Створює всі точки, встановлюючи їхні позиції малювання на сітці.
+     */
+    private void createMarksGrid() {
+        for(int x = 0; x < marks.length; x++) {
+            for (int y = 0; y < marks[x].length; y++) {
+                marks[x][y] = new Mark(startPoint.x+x* SIZE_OF_CELL, startPoint.y + y* SIZE_OF_CELL, SIZE_OF_CELL, SIZE_OF_CELL);
+            }
+        }
+    }
+}
@@ -7,27 +7,15 @@ import java.awt.*;
  * Представляє точку, яке може бути видима, або ні залежно від того, попав в корабель, чи ні.
  */
 public class Mark extends Rectangle {
-    /**
-     * Колір попадання в корабель.
-     */
-    private final Color HIT_COLOUR = Color.RED;
-    /**
-     * Колір промаху.
-     */
-    private final Color MISS_COLOUR = Color.BLACK;
-    /**
-     * Відступ по краях.
-     */
-    private final int INIDENT = 13;
     /**
      * Якщо значення true, точка буде зафарбована.
      */
     private boolean showMark;
     /**
      * Змінює колір. Коли в корабель попали, використовуватиметься HIT_COLOUR,
-     * коли значення null використовуватиме MISS_COLOUR.
+     * інакше використовуватиме MISS_COLOUR.
      */
-    private Ship markedShip;
+    private boolean hit;
 
     /**
      * Створює точку із стандартним станом, у якій вона готова до малювання, яку не буде видно.
@@ -43,21 +31,25 @@ public class Mark extends Rectangle {
     }
 
     /**
-     * Скидає прив'язку до корабля, робиться невидимою.
+     * Скидає влучення, робиться невидимою.
      */
     public void reset() {
-        markedShip = null;
+        hit = false;
         showMark = false;
     }
 
     /**
-     * Позначення знищення корабля.
+     * Робить точку видимою. Облік влучень у корабель веде GameGrid у масці палуб кожного корабля,
+     * тож повторний виклик для вже видимої точки нічого не змінює.
+     *
+     * @param hit True, якщо постріл влучив у корабель.
+     * @return True, якщо точка щойно стала видимою.
      */
-    public void mark() {
-        if(!showMark && isHasShip()) {
-            markedShip.destroyedDecks();
-        }
+    public boolean mark(boolean hit) {
+        if(showMark) return false;
+        this.hit = hit;
         showMark = true;
+        return true;
     }
 
     /**
@@ -69,42 +61,14 @@ public class Mark extends Rectangle {
         return showMark;
     }
 
-    /**
-     * Зберігає інформацію про корабель.
-     *
-     * @param ship Посилання на корабель у цьому місці.
-     */
-    public void markShip(Ship ship) {
-        this.markedShip = ship;
-    }
-
-    /**
-     * Перевіряє чи ця точка має пов’язаний корабель.
-     *
-     * @return True, якщо встановлено корабель.
-     */
-    public boolean isHasShip() {
-        return markedShip != null;
-    }
-
-    /**
-     * Отримує корабель, якщо він є, інакше він буде нульовим.
-     *
-     * @return Посилання на пов’язаний корабель для цієї точки.
-     */
-    public Ship getShip() {
-        return markedShip;
-    }
-
     /**
      * Малює точку.
-     * Використовує колір залежно від того, чи ця точка знаходиться над кораблем.
+     * Копіює з SpriteAtlas спрайт влучення або промаху залежно від того, чи постріл влучив у корабель.
      *
      * @param g Посилання на графічний об’єкт для малювання.
      */
     public void draw(Graphics g) {
         if(!showMark) return;
-        g.setColor(isHasShip() ? HIT_COLOUR : MISS_COLOUR);
-        g.fillOval(startPoint.x + INIDENT + 1, startPoint.y + INIDENT + 1, width - INIDENT * 2, height - INIDENT * 2);
+        SpriteAtlas.getInstance().draw(g, hit ? SpriteAtlas.Sprite.HIT : SpriteAtlas.Sprite.MISS, startPoint.x, startPoint.y);
     }
 }
\ No newline at end of file
@@ -0,0 +1,435 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас MonteCarloAI:
+ * ШІ, який кожного ходу генерує випадкові розстановки всього флоту, що не суперечать відомим промахам,
+ * влученням і знищеним кораблям, рахує, як часто кожна клітинка зайнята кораблем, і стріляє в найімовірнішу.
+ * Генерація йде паралельно на кількох потоках і зупиняється, коли вичерпано бюджет часу або кількості розстановок,
+ * тож сила ШІ росте разом з потужністю комп'ютера.
+ */
+public class MonteCarloAI extends BattleshipAI {
+    /**
+     * Бюджет часу за замовчуванням на один хід у мілісекундах.
+     */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 20;
+    /**
+     * Бюджет кількості розстановок за замовчуванням на один хід.
+     */
+    public static final int DEFAULT_SAMPLE_BUDGET = 20000;
+    /**
+     * Кількість випадкових спроб розмістити корабель, після якої перебираються всі його розміщення.
+     */
+    private static final int QUICK_PLACEMENT_TRIES = 8;
+    /**
+     * Бюджет часу на один хід у наносекундах.
+     */
+    private final long timeBudgetNanos;
+    /**
+     * Бюджет кількості прийнятих розстановок на один хід.
+     */
+    private final int sampleBudget;
+    /**
+     * Генератори розстановок, по одному на потік.
+     */
+    private final Sampler[] samplers;
+    /**
+     * Спільний лічильник розстановок, що залишилися на поточному ході.
+     */
+    private final AtomicInteger samplesLeft = new AtomicInteger();
+    /**
+     * Момент System.nanoTime(), коли генерацію поточного ходу слід зупинити.
+     */
+    private long deadline;
+    /**
+     * Сумарна кількість розстановок усіх потоків для кожної клітинки.
+     */
+    private final int[] counts;
+    /**
+     * Довжини кораблів, що ще на плаву, для поточного ходу.
+     */
+    private int[] afloat;
+    /**
+     * Кількість кораблів у масиві afloat.
+     */
+    private int afloatCount;
+    /**
+     * Кількість прийнятих розстановок на останньому ході.
+     */
+    private int lastSampleCount;
+    /**
+     * Розміщення зі спільної PlacementTable для кожної довжини корабля, що є у флоті.
+     */
+    private final PlacementTable.Placements[] placements;
+    /**
+     * Для кожної довжини корабля - номери розміщень, що не зачіпають порожніх клітинок на поточному ході.
+     */
+    private final int[][] candidates;
+    /**
+     * Кількість розміщень у candidates для кожної довжини.
+     */
+    private final int[] candidateCount;
+
+    /**
+     * Створює ШІ з бюджетом за замовчуванням, який використовує всі ядра.
+     *
+     * @param rules Правила гри сітки гравця для атаки.
+     */
+    public MonteCarloAI(GameRules rules) {
+        this(rules, DEFAULT_TIME_BUDGET_MILLIS, DEFAULT_SAMPLE_BUDGET, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Створює ШІ з вказаним бюджетом.
+     *
+     * @param rules Правила гри сітки гравця для атаки.
+     * @param timeBudgetMillis Найбільший час на один хід у мілісекундах.
+     * @param sampleBudget Найбільша кількість прийнятих розстановок на один хід.
+     * @param threads Кількість потоків генерації, 1 - генерувати в потоці виклику.
+     */
+    public MonteCarloAI(GameRules rules, long timeBudgetMillis, int sampleBudget, int threads) {
+        super(rules);
+        if(threads < 1) {
+            throw new IllegalArgumentException("Потрібен хоча б один потік: " + threads);
+        }
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000;
+        this.sampleBudget = sampleBudget;
+        counts = new int[rules.getCellCount()];
+        afloat = new int[rules.getFleetSize()];
+        PlacementTable table = PlacementTable.forRules(rules);
+        placements = new PlacementTable.Placements[observed.getMaxLength() + 1];
+        for(int i = 0; i < rules.getFleetSize(); i++) {
+            placements[rules.getShipLength(i)] = table.forLength(rules.getShipLength(i));
+        }
+        candidates = new int[observed.getMaxLength() + 1][];
+        candidateCount = new int[observed.getMaxLength() + 1];
+        samplers = new Sampler[threads];
+        for(int i = 0; i < threads; i++) {
+            samplers[i] = new Sampler(random.nextLong());
+        }
+    }
+
+    /**
+     * Стріляє в клітинку, яка найчастіше зайнята у згенерованих розстановках.
+     *
+     * @return Індекс вибраної клітинки для атаки.
+     */
+    @Override
+    public int selectCell() {
+        int cell = sampleBestCell();
+        moves.remove(cell);
+        return cell;
+    }
+
+    /**
+     * Отримує кількість прийнятих розстановок на останньому ході.
+     *
+     * @return Кількість розстановок, з яких обрано останній хід, або 0, якщо оцінку взято з кешу.
+     */
+    public int getLastSampleCount() {
+        return lastSampleCount;
+    }
+
+    /**
+     * Вибирає найчастіше зайняту необстріляну клітинку за вибіркою розстановок з кешу або щойно згенерованою.
+     * Якщо жодної розстановки не знайдено, вибирає випадкову необстріляну клітинку.
+     *
+     * @return Індекс вибраної клітинки.
+     */
+    private int sampleBestCell() {
+        lastSampleCount = 0;
+        int[] evaluation = cachedEvaluation(counts);
+        int best = -1;
+        int bestCount = -1;
+        int ties = 0;
+        for(int cell = 0; cell < evaluation.length; cell++) {
+            if(observed.isShot(cell) || observed.isBlocked(cell)) continue;
+            if(evaluation[cell] > bestCount) {
+                bestCount = evaluation[cell];
+                best = cell;
+                ties = 1;
+            } else if(evaluation[cell] == bestCount && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        if(best < 0) {
+            best = moves.get(random.nextInt(moves.size()));
+        }
+        return best;
+    }
+
+    /**
+     * Генерує розстановки на всіх потоках до вичерпання бюджету і рахує, скільки разів кожна клітинка була зайнята.
+     *
+     * @param evaluation Масив для кількості на кожну клітинку.
+     * @return True, якщо вибірка повна: використано весь бюджет розстановок, а генерацію не зупинили
+     *         ні бюджет часу, ні переривання. Лише така оцінка потрапляє в кеш, щоб урізана вибірка
+     *         не підміняла повну для цієї картини в усіх наступних іграх.
+     */
+    @Override
+    protected boolean evaluate(int[] evaluation) {
+        afloatCount = 0;
+        for(int length = observed.getMaxLength(); length >= 1; length--) {
+            int remaining = observed.getRemaining(length);
+            if(remaining > 0) collectCandidates(length);
+            for(int i = 0; i < remaining; i++) {
+                afloat[afloatCount++] = length;
+            }
+        }
+        deadline = System.nanoTime() + timeBudgetNanos;
+        samplesLeft.set(sampleBudget);
+        for(Sampler sampler : samplers) {
+            sampler.prepare();
+        }
+        if(samplers.length == 1) {
+            samplers[0].sample();
+        } else {
+            runInParallel();
+        }
+        for(int i = 0; i < evaluation.length; i++) {
+            evaluation[i] = 0;
+        }
+        for(Sampler sampler : samplers) {
+            lastSampleCount += sampler.accepted;
+            for(int i = 0; i < evaluation.length; i++) {
+                evaluation[i] += sampler.counts[i];
+            }
+        }
+        return lastSampleCount == sampleBudget && !Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Збирає номери всіх розміщень корабля заданої довжини з PlacementTable, що не зачіпають порожніх клітинок.
+     *
+     * @param length Кількість палуб.
+     */
+    private void collectCandidates(int length) {
+        if(candidates[length] == null) {
+            candidates[length] = new int[placements[length].count()];
+        }
+        int[] list = candidates[length];
+        int count = 0;
+        BitBoard blocked = observed.getBlocked();
+        for(int placement = 0; placement < list.length; placement++) {
+            if(!placements[length].footprintIntersects(placement, blocked)) list[count++] = placement;
+        }
+        candidateCount[length] = count;
+    }
+
+    /**
+     * Запускає всі генератори паралельно і чекає, доки вони вичерпають бюджет. Перший генератор працює
+     * в потоці виклику, тож переривання цього потоку зупиняє його, а разом з ним через спільний лічильник
+     * і решту генераторів. Метод повертається лише тоді, коли всі генератори зупинилися.
+     */
+    private void runInParallel() {
+        for(int i = 1; i < samplers.length; i++) {
+            samplers[i].reinitialize();
+            ForkJoinPool.commonPool().execute(samplers[i]);
+        }
+        samplers[0].sample();
+        samplesLeft.set(0);
+        for(int i = 1; i < samplers.length; i++) {
+            try {
+                samplers[i].join();
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Помилка генерації розстановок", e);
+            }
+        }
+    }
+
+    /**
+     * Генератор випадкових розстановок для одного потоку з власним станом і лічильниками.
+     */
+    private class Sampler extends RecursiveAction {
+        /**
+         * Версія формату серіалізації.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * Скільки разів кожна клітинка була зайнята в прийнятих розстановках.
+         */
+        private final int[] counts = new int[rules.getCellCount()];
+        /**
+         * Клітинки, куди не можна ставити наступний корабель у поточній розстановці.
+         */
+        private final BitBoard forbidden = new BitBoard(rules.getCellCount());
+        /**
+         * Клітинки, зайняті кораблями поточної розстановки.
+         */
+        private final BitBoard occupied = new BitBoard(rules.getCellCount());
+        /**
+         * Довжини кораблів поточної розстановки: спочатку розміщені, потім ще ні.
+         */
+        private final int[] ships = new int[rules.getFleetSize()];
+        /**
+         * Випадковий генератор потоку.
+         */
+        private final SplittableRandom random;
+        /**
+         * Кількість прийнятих розстановок на поточному ході.
+         */
+        private int accepted;
+
+        /**
+         * Створює генератор з власним випадковим генератором.
+         *
+         * @param seed Початкове значення випадкового генератора.
+         */
+        Sampler(long seed) {
+            random = new SplittableRandom(seed);
+        }
+
+        /**
+         * Готує генератор до нового ходу.
+         */
+        void prepare() {
+            accepted = 0;
+            for(int i = 0; i < counts.length; i++) {
+                counts[i] = 0;
+            }
+        }
+
+        /**
+         * Генерує розстановки в потоці пулу.
+         */
+        @Override
+        protected void compute() {
+            sample();
+        }
+
+        /**
+         * Генерує розстановки, доки не настане deadline або не вичерпається спільний лічильник samplesLeft.
+         */
+        void sample() {
+            while(samplesLeft.get() > 0 && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                if(trySampleLayout() && samplesLeft.getAndDecrement() > 0) {
+                    accepted++;
+                    for(int cell = occupied.nextSetBit(0); cell >= 0; cell = occupied.nextSetBit(cell + 1)) {
+                        counts[cell]++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Намагається згенерувати одну розстановку. Спочатку кораблі ставляться через кожне відкрите влучення,
+         * потім решта кораблів - у випадкові дозволені місця.
+         *
+         * @return True, якщо розстановка вдалася і записана в occupied.
+         */
+        private boolean trySampleLayout() {
+            System.arraycopy(afloat, 0, ships, 0, afloatCount);
+            forbidden.copyFrom(observed.getBlocked());
+            occupied.clearAll();
+            int placed = 0;
+            BitBoard openHits = observed.getOpenHits();
+            for(int hit = openHits.nextSetBit(0); hit >= 0; hit = openHits.nextSetBit(hit + 1)) {
+                if(occupied.get(hit)) continue;
+                if(placed == afloatCount || !tryCoverHit(hit, placed)) return false;
+                placed++;
+            }
+            for(; placed < afloatCount; placed++) {
+                if(!tryPlaceAnywhere(ships[placed])) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Ставить один з ще не розміщених кораблів так, щоб він накрив влучення. Усі можливі пари
+         * корабель-розміщення рівноймовірні. Розміщений корабель переміщується на позицію placed у масиві ships.
+         *
+         * @param hit Індекс клітинки влучення.
+         * @param placed Кількість уже розміщених кораблів.
+         * @return True, якщо корабель розміщено.
+         */
+        private boolean tryCoverHit(int hit, int placed) {
+            int width = rules.getWidth();
+            int x = hit % width;
+            int y = hit / width;
+            int chosen = -1;
+            int chosenShip = -1;
+            int seen = 0;
+            for(int shipIndex = placed; shipIndex < afloatCount; shipIndex++) {
+                int length = ships[shipIndex];
+                for(int orientation = 1; orientation >= (length > 1 ? 0 : 1); orientation--) {
+                    boolean horizontal = orientation == 1;
+                    for(int offset = 0; offset < length; offset++) {
+                        int placement = placements[length].indexOf(horizontal ? x - offset : x, horizontal ? y : y - offset, horizontal);
+                        if(placement >= 0 && fits(placement, length) && random.nextInt(++seen) == 0) {
+                            chosen = placement;
+                            chosenShip = shipIndex;
+                        }
+                    }
+                }
+            }
+            if(chosen < 0) return false;
+            int length = ships[chosenShip];
+            place(chosen, length);
+            ships[chosenShip] = ships[placed];
+            ships[placed] = length;
+            return true;
+        }
+
+        /**
+         * Ставить корабель у випадкове дозволене місце. Спершу пробує кілька випадкових розміщень,
+         * а якщо жодне не підійшло - вибирає рівноймовірно серед усіх дозволених.
+         *
+         * @param length Кількість палуб.
+         * @return True, якщо корабель розміщено.
+         */
+        private boolean tryPlaceAnywhere(int length) {
+            int[] list = candidates[length];
+            int count = candidateCount[length];
+            if(count == 0) return false;
+            for(int attempt = 0; attempt < QUICK_PLACEMENT_TRIES; attempt++) {
+                int placement = list[random.nextInt(count)];
+                if(fits(placement, length)) {
+                    place(placement, length);
+                    return true;
+                }
+            }
+            int chosen = -1;
+            int seen = 0;
+            for(int i = 0; i < count; i++) {
+                if(fits(list[i], length) && random.nextInt(++seen) == 0) {
+                    chosen = list[i];
+                }
+            }
+            if(chosen < 0) return false;
+            place(chosen, length);
+            return true;
+        }
+
+        /**
+         * Перевіряє, чи розміщення не зачіпає заборонених клітинок.
+         *
+         * @param placement Номер розміщення в PlacementTable.
+         * @param length Кількість палуб.
+         * @return True, якщо корабель можна поставити.
+         */
+        private boolean fits(int placement, int length) {
+            return !placements[length].footprintIntersects(placement, forbidden);
+        }
+
+        /**
+         * Ставить корабель і забороняє його клітинки, а якщо кораблі не торкаються - і його ореол.
+         *
+         * @param placement Номер розміщення в PlacementTable.
+         * @param length Кількість палуб.
+         */
+        private void place(int placement, int length) {
+            PlacementTable.Placements table = placements[length];
+            table.addFootprint(placement, occupied);
+            if(rules.shipsMayTouch()) {
+                table.addFootprint(placement, forbidden);
+            } else {
+                table.addHalo(placement, forbidden);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.util.Random;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас MovePool
+ * Набір клітинок, по яких ШІ ще не стріляв. Клітинки зберігаються як індекси y * ширина + x
+ * у щільному масиві, а для кожної клітинки запам'ятовується її місце в ньому, тож перевірка,
+ * видалення і випадковий вибір працюють за O(1) на сітці будь-якого розміру.
+ * Видалення переносить останній елемент на місце видаленого, тому порядок елементів змінюється.
+ */
+public class MovePool {
+    /**
+     * Клітинки, що залишилися, на позиціях [0, size).
+     */
+    private final int[] cells;
+    /**
+     * Позиція кожної клітинки в cells або -1, якщо клітинку видалено.
+     */
+    private final int[] positions;
+    /**
+     * Кількість клітинок, що залишилися.
+     */
+    private int size;
+
+    /**
+     * Створює повний набір клітинок.
+     *
+     * @param cellCount Кількість клітинок сітки.
+     */
+    public MovePool(int cellCount) {
+        cells = new int[cellCount];
+        positions = new int[cellCount];
+        reset();
+    }
+
+    /**
+     * Повертає до набору всі клітинки сітки в порядку зростання індексу.
+     */
+    public void reset() {
+        for(int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+            positions[i] = i;
+        }
+        size = cells.length;
+    }
+
+    /**
+     * Випадково перемішує клітинки, що залишилися.
+     *
+     * @param random Випадковий генератор.
+     */
+    public void shuffle(Random random) {
+        for(int i = size - 1; i > 0; i--) {
+            swap(i, random.nextInt(i + 1));
+        }
+    }
+
+    /**
+     * Отримує кількість клітинок, що залишилися.
+     *
+     * @return Кількість клітинок.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Перевіряє, чи набір порожній.
+     *
+     * @return True, якщо клітинок не залишилося.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Перевіряє, чи клітинка ще в наборі.
+     *
+     * @param cell Індекс клітинки.
+     * @return True, якщо по клітинці ще не стріляли.
+     */
+    public boolean contains(int cell) {
+        return positions[cell] >= 0;
+    }
+
+    /**
+     * Отримує клітинку за позицією в наборі.
+     *
+     * @param index Позиція від 0 до size() - 1.
+     * @return Індекс клітинки.
+     */
+    public int get(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Видаляє клітинку з набору, якщо вона там є.
+     *
+     * @param cell Індекс клітинки.
+     * @return True, якщо клітинку видалено.
+     */
+    public boolean remove(int cell) {
+        int position = positions[cell];
+        if(position < 0) return false;
+        swap(position, size - 1);
+        positions[cell] = -1;
+        size--;
+        return true;
+    }
+
+    /**
+     * Видаляє й повертає останню клітинку набору.
+     *
+     * @return Індекс клітинки.
+     */
+    public int removeLast() {
+        int cell = cells[size - 1];
+        positions[cell] = -1;
+        size--;
+        return cell;
+    }
+
+    /**
+     * Видаляє й повертає рівноймовірно вибрану клітинку.
+     *
+     * @param random Випадковий генератор.
+     * @return Індекс клітинки.
+     */
+    public int removeRandom(Random random) {
+        swap(random.nextInt(size), size - 1);
+        return removeLast();
+    }
+
+    /**
+     * Міняє місцями дві клітинки набору.
+     *
+     * @param i Перша позиція.
+     * @param j Друга позиція.
+     */
+    private void swap(int i, int j) {
+        int a = cells[i];
+        int b = cells[j];
+        cells[i] = b;
+        cells[j] = a;
+        positions[b] = i;
+        positions[a] = j;
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас NeighbourTable
+ * Незмінна таблиця сусідів кожної клітинки сітки заданого розміру: до чотирьох сусідів по стороні
+ * (зліва, справа, зверху, знизу) і до чотирьох діагональних. Клітинки задаються індексами y * ширина + x,
+ * тож обхід сусідів не перевіряє межі сітки і не створює об'єктів.
+ * Таблиця створюється один раз на розмір сітки і спільна для всіх сіток і потоків.
+ */
+public final class NeighbourTable {
+    /**
+     * Таблиці, що вже створені, за розміром сітки.
+     */
+    private static final Map<Long, NeighbourTable> TABLES = new ConcurrentHashMap<>();
+    /**
+     * Найбільша кількість сусідів одного виду.
+     */
+    private static final int SLOTS = 4;
+    /**
+     * Ширина сітки.
+     */
+    private final int width;
+    /**
+     * Висота сітки.
+     */
+    private final int height;
+    /**
+     * Сусіди по стороні клітинки c на позиціях [c * 4, c * 4 + orthogonalCount[c]).
+     */
+    private final int[] orthogonal;
+    /**
+     * Кількість сусідів по стороні кожної клітинки.
+     */
+    private final int[] orthogonalCount;
+    /**
+     * Діагональні сусіди клітинки c на позиціях [c * 4, c * 4 + diagonalCount[c]).
+     */
+    private final int[] diagonal;
+    /**
+     * Кількість діагональних сусідів кожної клітинки.
+     */
+    private final int[] diagonalCount;
+
+    /**
+     * Будує таблицю для сітки заданого розміру.
+     *
+     * @param width Ширина сітки.
+     * @param height Висота сітки.
+     */
+    private NeighbourTable(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int cellCount = width * height;
+        orthogonal = new int[cellCount * SLOTS];
+        orthogonalCount = new int[cellCount];
+        diagonal = new int[cellCount * SLOTS];
+        diagonalCount = new int[cellCount];
+        for(int cell = 0; cell < cellCount; cell++) {
+            int x = cell % width;
+            int y = cell / width;
+            for(int dy = -1; dy <= 1; dy++) {
+                for(int dx = -1; dx <= 1; dx++) {
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    if((dx == 0 && dy == 0) || nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                    int neighbour = ny * width + nx;
+                    if(dx == 0 || dy == 0) {
+                        orthogonal[cell * SLOTS + orthogonalCount[cell]++] = neighbour;
+                    } else {
+                        diagonal[cell * SLOTS + diagonalCount[cell]++] = neighbour;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Отримує спільну таблицю для сітки заданого розміру, створюючи її при першому зверненні.
+     *
+     * @param width Ширина сітки.
+     * @param height Висота сітки.
+     * @return Таблиця сусідів, одна на розмір сітки.
+     */
+    public static NeighbourTable forSize(int width, int height) {
+        if(width < 1 || height < 1) {
+            throw new IllegalArgumentException("Розмір сітки має бути додатним: " + width + "x" + height);
+        }
+        return TABLES.computeIfAbsent(((long) width << 32) | height, key -> new NeighbourTable(width, height));
+    }
+
+    /**
+     * Отримує спільну таблицю для сітки за правилами гри.
+     *
+     * @param rules Правила гри з розміром сітки.
+     * @return Таблиця сусідів, одна на розмір сітки.
+     */
+    public static NeighbourTable forRules(GameRules rules) {
+        return forSize(rules.getWidth(), rules.getHeight());
+    }
+
+    /**
+     * Отримує ширину сітки.
+     *
+     * @return Ширина сітки.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Отримує висоту сітки.
+     *
+     * @return Висота сітки.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Отримує кількість сусідів клітинки по стороні.
+     *
+     * @param cell Індекс клітинки.
+     * @return Кількість від 0 до 4.
+     */
+    public int getOrthogonalCount(int cell) {
+        return orthogonalCount[cell];
+    }
+
+    /**
+     * Отримує сусіда клітинки по стороні.
+     *
+     * @param cell Індекс клітинки.
+     * @param k Номер сусіда від 0 до getOrthogonalCount(cell) - 1.
+     * @return Індекс сусідньої клітинки.
+     */
+    public int getOrthogonal(int cell, int k) {
+        return orthogonal[cell * SLOTS + k];
+    }
+
+    /**
+     * Отримує кількість діагональних сусідів клітинки.
+     *
+     * @param cell Індекс клітинки.
+     * @return Кількість від 0 до 4.
+     */
+    public int getDiagonalCount(int cell) {
+        return diagonalCount[cell];
+    }
+
+    /**
+     * Отримує діагонального сусіда клітинки.
+     *
+     * @param cell Індекс клітинки.
+     * @param k Номер сусіда від 0 до getDiagonalCount(cell) - 1.
+     * @return Індекс сусідньої клітинки.
+     */
+    public int getDiagonal(int cell, int k) {
+        return diagonal[cell * SLOTS + k];
+    }
+}
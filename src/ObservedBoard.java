@@ -0,0 +1,456 @@
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас ObservedBoard
+ * Те, що ШІ знає про сітку суперника: промахи, влучення в поранені кораблі, знищені кораблі
+ * та скільки кораблів кожної довжини ще на плаву. Зберігається в бітових шарах.
+ * Разом із шарами ведеться хеш Zobrist порожніх клітинок і відкритих влучень, тож картини,
+ * з яких ШІ робить однакові висновки, мають однаковий хеш незалежно від порядку пострілів.
+ */
+public class ObservedBoard {
+    /**
+     * Правила гри сітки, що спостерігається.
+     */
+    private final GameRules rules;
+    /**
+     * Спільна таблиця сусідів клітинок для розміру сітки.
+     */
+    private final NeighbourTable neighbours;
+    /**
+     * Клітинки, по яких уже стріляли.
+     */
+    private final BitBoard shots;
+    /**
+     * Клітинки, де кораблів точно немає: промахи, знищені кораблі та, якщо кораблі не торкаються, клітинки біля них.
+     */
+    private final BitBoard blocked;
+    /**
+     * Влучення в кораблі, які ще не знищені.
+     */
+    private final BitBoard openHits;
+    /**
+     * Кількість кораблів на плаву для кожної кількості палуб.
+     */
+    private final int[] remainingByLength;
+    /**
+     * Кількість кораблів на плаву.
+     */
+    private int remainingShips;
+    /**
+     * Кількість обстріляних клітинок.
+     */
+    private int shotCount;
+    /**
+     * Перша клітинка, яку останнє знищення прибрало з відкритих влучень.
+     */
+    private int lastSunkStart;
+    /**
+     * Крок між клітинками останнього знищення: 1 або ширина сітки.
+     */
+    private int lastSunkStep;
+    /**
+     * Кількість клітинок, які останнє знищення прибрало з відкритих влучень.
+     */
+    private int lastSunkCells;
+    /**
+     * Спільна таблиця ключів Zobrist для розміру сітки.
+     */
+    private final ZobristKeys zobrist;
+    /**
+     * Хеш Zobrist шарів blocked і openHits: порожні клітинки мають ключ MISS, відкриті влучення - HIT.
+     */
+    private long stateHash;
+
+    /**
+     * Створює порожню картину сітки за правилами гри.
+     *
+     * @param rules Правила гри сітки, що спостерігається.
+     */
+    public ObservedBoard(GameRules rules) {
+        this.rules = rules;
+        neighbours = NeighbourTable.forRules(rules);
+        shots = new BitBoard(rules.getCellCount());
+        blocked = new BitBoard(rules.getCellCount());
+        openHits = new BitBoard(rules.getCellCount());
+        remainingByLength = new int[Math.max(rules.getWidth(), rules.getHeight()) + 1];
+        zobrist = ZobristKeys.forRules(rules);
+        reset();
+    }
+
+    /**
+     * Забуває всі постріли і повертає весь флот на плав.
+     */
+    public void reset() {
+        shots.clearAll();
+        blocked.clearAll();
+        openHits.clearAll();
+        for(int i = 0; i < remainingByLength.length; i++) {
+            remainingByLength[i] = 0;
+        }
+        for(int i = 0; i < rules.getFleetSize(); i++) {
+            remainingByLength[rules.getShipLength(i)]++;
+        }
+        remainingShips = rules.getFleetSize();
+        shotCount = 0;
+        lastSunkStart = -1;
+        lastSunkStep = 1;
+        lastSunkCells = 0;
+        stateHash = 0;
+    }
+
+    /**
+     * Записує результат пострілу. Повторний постріл ALREADY_SHOT нічого нового не відкриває і пропускається.
+     *
+     * @param cell Індекс клітинки.
+     * @param result Результат пострілу.
+     * @param sunkLength Кількість палуб знищеного корабля або 0, якщо корабель не знищено.
+     */
+    public void record(int cell, GameGrid.ShotResult result, int sunkLength) {
+        if(result == GameGrid.ShotResult.ALREADY_SHOT) return;
+        if(!result.isHit()) {
+            recordMiss(cell);
+            return;
+        }
+        recordHit(cell);
+        if(result.isSunk()) recordSunkAt(cell, sunkLength);
+    }
+
+    /**
+     * Записує промах.
+     *
+     * @param cell Індекс клітинки.
+     */
+    public void recordMiss(int cell) {
+        markShot(cell);
+        block(cell);
+    }
+
+    /**
+     * Записує влучення. Якщо кораблі не торкаються, діагональні сусіди влучення стають порожніми:
+     * там не може бути ні цього корабля, ні іншого.
+     *
+     * @param cell Індекс клітинки.
+     */
+    public void recordHit(int cell) {
+        markShot(cell);
+        openHit(cell);
+        if(!rules.shipsMayTouch()) {
+            for(int k = 0; k < neighbours.getDiagonalCount(cell); k++) {
+                block(neighbours.getDiagonal(cell, k));
+            }
+        }
+    }
+
+    /**
+     * Записує знищення корабля, що стоїть на лінії відкритих влучень через клітинку останнього пострілу.
+     * Якщо кораблі не торкаються, така лінія завжди одна. Інакше корабель може лежати на кількох лініях:
+     * тоді з відкритих влучень прибираються лише клітинки, спільні для всіх можливих положень,
+     * а решта влучень залишається відкритою до знищення їхніх кораблів.
+     *
+     * @param cell Індекс клітинки пострілу, що знищив корабель.
+     * @param length Кількість палуб знищеного корабля.
+     */
+    public void recordSunkAt(int cell, int length) {
+        int width = rules.getWidth();
+        int x = cell % width;
+        int y = cell / width;
+        int firstX = -1;
+        int lastX = -1;
+        for(int startX = Math.max(0, x - length + 1); startX <= x && startX + length <= width; startX++) {
+            if(allOpenHits(y * width + startX, length, 1)) {
+                if(firstX < 0) firstX = startX;
+                lastX = startX;
+            }
+        }
+        int firstY = -1;
+        int lastY = -1;
+        if(length > 1) {
+            for(int startY = Math.max(0, y - length + 1); startY <= y && startY + length <= rules.getHeight(); startY++) {
+                if(allOpenHits(startY * width + x, length, width)) {
+                    if(firstY < 0) firstY = startY;
+                    lastY = startY;
+                }
+            }
+        }
+        if(firstX >= 0 && firstY < 0 && firstX == lastX) {
+            recordSunk(y * width + firstX, length, true);
+            return;
+        }
+        if(firstY >= 0 && firstX < 0 && firstY == lastY) {
+            recordSunk(firstY * width + x, length, false);
+            return;
+        }
+        remainingByLength[length]--;
+        remainingShips--;
+        lastSunkStart = cell;
+        lastSunkStep = 1;
+        lastSunkCells = 1;
+        if(firstX >= 0 && firstY < 0) {
+            lastSunkStart = y * width + lastX;
+            lastSunkCells = firstX + length - lastX;
+        } else if(firstY >= 0 && firstX < 0) {
+            lastSunkStart = lastY * width + x;
+            lastSunkStep = width;
+            lastSunkCells = firstY + length - lastY;
+        }
+        for(int i = 0, sunk = lastSunkStart; i < lastSunkCells; i++, sunk += lastSunkStep) {
+            closeHit(sunk);
+            block(sunk);
+        }
+    }
+
+    /**
+     * Записує знищення корабля: його клітинки більше не є відкритими влученнями, а стають порожніми
+     * разом з ореолом, якщо кораблі не торкаються.
+     *
+     * @param startCell Індекс першої палуби.
+     * @param length Кількість палуб.
+     * @param horizontal True, якщо корабель горизонтальний.
+     */
+    public void recordSunk(int startCell, int length, boolean horizontal) {
+        remainingByLength[length]--;
+        remainingShips--;
+        int step = horizontal ? 1 : rules.getWidth();
+        lastSunkStart = startCell;
+        lastSunkStep = step;
+        lastSunkCells = length;
+        for(int i = 0, cell = startCell; i < length; i++, cell += step) {
+            closeHit(cell);
+            block(cell);
+            if(!rules.shipsMayTouch()) {
+                for(int k = 0; k < neighbours.getOrthogonalCount(cell); k++) {
+                    block(neighbours.getOrthogonal(cell, k));
+                }
+                for(int k = 0; k < neighbours.getDiagonalCount(cell); k++) {
+                    block(neighbours.getDiagonal(cell, k));
+                }
+            }
+        }
+    }
+
+    /**
+     * Позначає клітинку обстріляною і рахує її, якщо по ній ще не стріляли.
+     *
+     * @param cell Індекс клітинки.
+     */
+    private void markShot(int cell) {
+        if(shots.get(cell)) return;
+        shots.set(cell);
+        shotCount++;
+    }
+
+    /**
+     * Позначає клітинку порожньою і оновлює хеш, якщо вона ще не була порожньою.
+     *
+     * @param cell Індекс клітинки.
+     */
+    private void block(int cell) {
+        if(blocked.get(cell)) return;
+        blocked.set(cell);
+        stateHash ^= zobrist.key(cell, ZobristKeys.CellState.MISS);
+    }
+
+    /**
+     * Позначає клітинку відкритим влученням і оновлює хеш, якщо вона ще не була ним.
+     *
+     * @param cell Індекс клітинки.
+     */
+    private void openHit(int cell) {
+        if(openHits.get(cell)) return;
+        openHits.set(cell);
+        stateHash ^= zobrist.key(cell, ZobristKeys.CellState.HIT);
+    }
+
+    /**
+     * Прибирає клітинку з відкритих влучень і оновлює хеш, якщо вона була відкритим влученням.
+     *
+     * @param cell Індекс клітинки.
+     */
+    private void closeHit(int cell) {
+        if(!openHits.get(cell)) return;
+        openHits.clear(cell);
+        stateHash ^= zobrist.key(cell, ZobristKeys.CellState.HIT);
+    }
+
+    /**
+     * Перевіряє, чи всі клітинки лінії є відкритими влученнями.
+     *
+     * @param start Індекс першої клітинки.
+     * @param length Кількість клітинок.
+     * @param step Крок між клітинками.
+     * @return True, якщо кожна клітинка лінії - відкрите влучення.
+     */
+    private boolean allOpenHits(int start, int length, int step) {
+        for(int i = 0, cell = start; i < length; i++, cell += step) {
+            if(!openHits.get(cell)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Отримує індекс клітинки.
+     *
+     * @param x Координата X.
+     * @param y Координата Y.
+     * @return Індекс клітинки y * ширина + x.
+     */
+    public int cellIndex(int x, int y) {
+        return y * rules.getWidth() + x;
+    }
+
+    /**
+     * Отримує правила гри.
+     *
+     * @return Правила гри сітки, що спостерігається.
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Перевіряє, чи по клітинці вже стріляли.
+     *
+     * @param cell Індекс клітинки.
+     * @return True, якщо постріл уже був.
+     */
+    public boolean isShot(int cell) {
+        return shots.get(cell);
+    }
+
+    /**
+     * Перевіряє, чи в клітинці точно немає корабля на плаву.
+     *
+     * @param cell Індекс клітинки.
+     * @return True, якщо клітинка не може бути частиною корабля на плаву.
+     */
+    public boolean isBlocked(int cell) {
+        return blocked.get(cell);
+    }
+
+    /**
+     * Перевіряє, чи клітинка є влученням у ще не знищений корабель.
+     *
+     * @param cell Індекс клітинки.
+     * @return True для відкритого влучення.
+     */
+    public boolean isOpenHit(int cell) {
+        return openHits.get(cell);
+    }
+
+    /**
+     * Перевіряє, чи є поранені, але не знищені кораблі.
+     *
+     * @return True, якщо є хоча б одне відкрите влучення.
+     */
+    public boolean hasOpenHits() {
+        return !openHits.isEmpty();
+    }
+
+    /**
+     * Отримує шар порожніх клітинок лише для читання.
+     *
+     * @return Шар клітинок, де кораблів точно немає.
+     */
+    public BitBoard getBlocked() {
+        return blocked;
+    }
+
+    /**
+     * Отримує шар відкритих влучень лише для читання.
+     *
+     * @return Шар влучень у ще не знищені кораблі.
+     */
+    public BitBoard getOpenHits() {
+        return openHits;
+    }
+
+    /**
+     * Отримує кількість кораблів заданої довжини на плаву.
+     *
+     * @param length Кількість палуб.
+     * @return Кількість таких кораблів, що ще не знищені.
+     */
+    public int getRemaining(int length) {
+        return remainingByLength[length];
+    }
+
+    /**
+     * Отримує найбільшу можливу довжину корабля на цій сітці.
+     *
+     * @return Найбільша довжина, для якої ведеться облік.
+     */
+    public int getMaxLength() {
+        return remainingByLength.length - 1;
+    }
+
+    /**
+     * Отримує першу клітинку, яку останнє знищення прибрало з відкритих влучень.
+     *
+     * @return Індекс клітинки або -1, якщо кораблів ще не знищено.
+     */
+    public int getLastSunkStart() {
+        return lastSunkStart;
+    }
+
+    /**
+     * Отримує крок між клітинками, які останнє знищення прибрало з відкритих влучень.
+     *
+     * @return 1 для горизонтальної лінії, ширина сітки для вертикальної.
+     */
+    public int getLastSunkStep() {
+        return lastSunkStep;
+    }
+
+    /**
+     * Отримує кількість клітинок, які останнє знищення прибрало з відкритих влучень.
+     * Якщо кораблі торкаються і положення корабля неоднозначне, це лише частина його палуб.
+     *
+     * @return Кількість клітинок.
+     */
+    public int getLastSunkCells() {
+        return lastSunkCells;
+    }
+
+    /**
+     * Отримує кількість кораблів на плаву.
+     *
+     * @return Кількість ще не знищених кораблів.
+     */
+    public int getRemainingShips() {
+        return remainingShips;
+    }
+
+    /**
+     * Отримує кількість обстріляних клітинок.
+     *
+     * @return Кількість пострілів по різних клітинках.
+     */
+    public int getShotCount() {
+        return shotCount;
+    }
+
+    /**
+     * Отримує хеш Zobrist картини сітки: порожніх клітинок і відкритих влучень.
+     * Клітинки знищених кораблів входять у хеш як порожні, бо для пошуку решти флоту вони не відрізняються від промахів.
+     *
+     * @return 64-бітний хеш або 0 для картини без пострілів.
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    /**
+     * Отримує підпис флоту на плаву: скільки кораблів кожної довжини ще не знищено.
+     * Разом із getStateHash однозначно задає все, з чого ШІ вибирає хід.
+     *
+     * @return 64-бітний підпис кількостей кораблів за довжинами.
+     */
+    public long getFleetSignature() {
+        long signature = 0;
+        for(int length = 1; length < remainingByLength.length; length++) {
+            signature = signature * 0x9E3779B97F4A7C15L + remainingByLength[length];
+        }
+        return signature;
+    }
+}
@@ -0,0 +1,354 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас PlacementTable
+ * Незмінна таблиця всіх розміщень кораблів на сітці заданого розміру. Для кожної довжини корабля
+ * розміщення пронумеровані від 0: спочатку горизонтальні, потім вертикальні. Для кожного розміщення
+ * зберігаються маска палуб і маска ореолу (палуби разом із сусідніми клітинками, включно з діагональними)
+ * у вигляді пар "індекс слова - біти" для BitBoard.
+ * Таблиця створюється один раз на розмір сітки і спільна для всіх сіток і потоків,
+ * а розміщення кожної довжини будуються при першому зверненні.
+ * Однопалубний корабель має лише горизонтальні розміщення, бо обидві орієнтації збігаються.
+ */
+public final class PlacementTable {
+    /**
+     * Таблиці, що вже створені, за розміром сітки.
+     */
+    private static final Map<Long, PlacementTable> TABLES = new ConcurrentHashMap<>();
+
+    /**
+     * Незмінні розміщення кораблів однієї довжини.
+     */
+    public static final class Placements {
+        /**
+         * Ширина сітки.
+         */
+        private final int width;
+        /**
+         * Висота сітки.
+         */
+        private final int height;
+        /**
+         * Кількість палуб.
+         */
+        private final int length;
+        /**
+         * Кількість горизонтальних розміщень.
+         */
+        private final int horizontalCount;
+        /**
+         * Кількість усіх розміщень.
+         */
+        private final int count;
+        /**
+         * Кількість горизонтальних розміщень в одному рядку.
+         */
+        private final int horizontalPerRow;
+        /**
+         * Індекс клітинки першої палуби кожного розміщення.
+         */
+        private final int[] startCell;
+        /**
+         * Для розміщення p маска палуб займає пари [maskStart[2p], maskStart[2p+1]),
+         * а маска ореолу - пари [maskStart[2p+1], maskStart[2p+2]).
+         */
+        private final int[] maskStart;
+        /**
+         * Індекс слова кожної пари.
+         */
+        private final int[] maskWord;
+        /**
+         * Біти кожної пари.
+         */
+        private final long[] maskBits;
+
+        /**
+         * Будує всі розміщення кораблів заданої довжини.
+         *
+         * @param width Ширина сітки.
+         * @param height Висота сітки.
+         * @param length Кількість палуб.
+         */
+        private Placements(int width, int height, int length) {
+            this.width = width;
+            this.height = height;
+            this.length = length;
+            horizontalPerRow = Math.max(width - length + 1, 0);
+            horizontalCount = height * horizontalPerRow;
+            int verticalCount = length > 1 ? width * Math.max(height - length + 1, 0) : 0;
+            count = horizontalCount + verticalCount;
+            maskStart = new int[count * 2 + 1];
+            startCell = new int[count];
+            int capacity = count * (length + 3) * 4;
+            int[] words = new int[capacity];
+            long[] bits = new long[capacity];
+            BitBoard mask = new BitBoard(width * height);
+            int pairs = 0;
+            for(int p = 0; p < count; p++) {
+                boolean horizontal = p < horizontalCount;
+                int x = horizontal ? p % horizontalPerRow : (p - horizontalCount) % width;
+                int y = horizontal ? p / horizontalPerRow : (p - horizontalCount) / width;
+                int endX = horizontal ? x + length - 1 : x;
+                int endY = horizontal ? y : y + length - 1;
+                startCell[p] = y * width + x;
+                for(int margin = 0; margin < 2; margin++) {
+                    mask.clearAll();
+                    for(int row = Math.max(y - margin, 0); row <= Math.min(endY + margin, height - 1); row++) {
+                        mask.setRange(row * width + Math.max(x - margin, 0), row * width + Math.min(endX + margin, width - 1) + 1);
+                    }
+                    maskStart[p * 2 + margin] = pairs;
+                    for(int w = 0; w < mask.wordCount(); w++) {
+                        if(mask.getWord(w) != 0) {
+                            words[pairs] = w;
+                            bits[pairs] = mask.getWord(w);
+                            pairs++;
+                        }
+                    }
+                }
+            }
+            maskStart[count * 2] = pairs;
+            maskWord = Arrays.copyOf(words, pairs);
+            maskBits = Arrays.copyOf(bits, pairs);
+        }
+
+        /**
+         * Отримує кількість палуб кораблів цих розміщень.
+         *
+         * @return Кількість палуб.
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Отримує кількість усіх розміщень.
+         *
+         * @return Кількість розміщень.
+         */
+        public int count() {
+            return count;
+        }
+
+        /**
+         * Отримує номер розміщення за позицією першої палуби та орієнтацією.
+         *
+         * @param x Координата X першої палуби.
+         * @param y Координата Y першої палуби.
+         * @param horizontal True для горизонтального корабля.
+         * @return Номер розміщення або -1, якщо корабель виходить за межі сітки.
+         */
+        public int indexOf(int x, int y, boolean horizontal) {
+            if(x < 0 || y < 0) return -1;
+            if(horizontal || length == 1) {
+                if(x + length > width || y >= height) return -1;
+                return y * horizontalPerRow + x;
+            }
+            if(x >= width || y + length > height) return -1;
+            return horizontalCount + y * width + x;
+        }
+
+        /**
+         * Отримує індекс клітинки першої палуби розміщення.
+         *
+         * @param placement Номер розміщення.
+         * @return Індекс клітинки y * ширина + x.
+         */
+        public int getStartCell(int placement) {
+            return startCell[placement];
+        }
+
+        /**
+         * Перевіряє орієнтацію розміщення.
+         *
+         * @param placement Номер розміщення.
+         * @return True для горизонтального розміщення.
+         */
+        public boolean isHorizontal(int placement) {
+            return placement < horizontalCount;
+        }
+
+        /**
+         * Отримує крок між індексами сусідніх палуб розміщення.
+         *
+         * @param placement Номер розміщення.
+         * @return 1 для горизонтального розміщення, ширина сітки для вертикального.
+         */
+        public int getStep(int placement) {
+            return placement < horizontalCount ? 1 : width;
+        }
+
+        /**
+         * Перевіряє, чи палуби розміщення зачіпають хоча б одну клітинку шару.
+         *
+         * @param placement Номер розміщення.
+         * @param board Шар розміру цієї сітки.
+         * @return True, якщо є спільна клітинка.
+         */
+        public boolean footprintIntersects(int placement, BitBoard board) {
+            return intersects(placement * 2, board);
+        }
+
+        /**
+         * Перевіряє, чи ореол розміщення зачіпає хоча б одну клітинку шару.
+         *
+         * @param placement Номер розміщення.
+         * @param board Шар розміру цієї сітки.
+         * @return True, якщо є спільна клітинка.
+         */
+        public boolean haloIntersects(int placement, BitBoard board) {
+            return intersects(placement * 2 + 1, board);
+        }
+
+        /**
+         * Рахує, скільки палуб розміщення припадає на встановлені клітинки шару.
+         *
+         * @param placement Номер розміщення.
+         * @param board Шар розміру цієї сітки.
+         * @return Кількість спільних клітинок.
+         */
+        public int countFootprintIn(int placement, BitBoard board) {
+            int count = 0;
+            for(int i = maskStart[placement * 2]; i < maskStart[placement * 2 + 1]; i++) {
+                count += Long.bitCount(board.getWord(maskWord[i]) & maskBits[i]);
+            }
+            return count;
+        }
+
+        /**
+         * Встановлює в шарі палуби розміщення.
+         *
+         * @param placement Номер розміщення.
+         * @param board Шар розміру цієї сітки.
+         */
+        public void addFootprint(int placement, BitBoard board) {
+            add(placement * 2, board);
+        }
+
+        /**
+         * Встановлює в шарі ореол розміщення разом з палубами.
+         *
+         * @param placement Номер розміщення.
+         * @param board Шар розміру цієї сітки.
+         */
+        public void addHalo(int placement, BitBoard board) {
+            add(placement * 2 + 1, board);
+        }
+
+        /**
+         * Перевіряє перетин однієї маски з шаром.
+         *
+         * @param mask Номер маски: розміщення * 2 для палуб, розміщення * 2 + 1 для ореолу.
+         * @param board Шар розміру цієї сітки.
+         * @return True, якщо є спільна клітинка.
+         */
+        private boolean intersects(int mask, BitBoard board) {
+            for(int i = maskStart[mask]; i < maskStart[mask + 1]; i++) {
+                if((board.getWord(maskWord[i]) & maskBits[i]) != 0) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Додає одну маску до шару.
+         *
+         * @param mask Номер маски: розміщення * 2 для палуб, розміщення * 2 + 1 для ореолу.
+         * @param board Шар розміру цієї сітки.
+         */
+        private void add(int mask, BitBoard board) {
+            for(int i = maskStart[mask]; i < maskStart[mask + 1]; i++) {
+                board.orWord(maskWord[i], maskBits[i]);
+            }
+        }
+    }
+
+    /**
+     * Ширина сітки.
+     */
+    private final int width;
+    /**
+     * Висота сітки.
+     */
+    private final int height;
+    /**
+     * Розміщення для кожної довжини корабля, null до першого звернення.
+     */
+    private final AtomicReferenceArray<Placements> lengths;
+
+    /**
+     * Створює порожню таблицю для сітки заданого розміру.
+     *
+     * @param width Ширина сітки.
+     * @param height Висота сітки.
+     */
+    private PlacementTable(int width, int height) {
+        this.width = width;
+        this.height = height;
+        lengths = new AtomicReferenceArray<>(Math.max(width, height) + 1);
+    }
+
+    /**
+     * Отримує спільну таблицю для сітки заданого розміру.
+     *
+     * @param width Ширина сітки.
+     * @param height Висота сітки.
+     * @return Таблиця розміщень, одна на розмір сітки.
+     */
+    public static PlacementTable forSize(int width, int height) {
+        if(width < 1 || height < 1) {
+            throw new IllegalArgumentException("Розмір сітки має бути додатним: " + width + "x" + height);
+        }
+        return TABLES.computeIfAbsent(((long) width << 32) | height, key -> new PlacementTable(width, height));
+    }
+
+    /**
+     * Отримує спільну таблицю для сітки за правилами гри.
+     *
+     * @param rules Правила гри з розміром сітки.
+     * @return Таблиця розміщень, одна на розмір сітки.
+     */
+    public static PlacementTable forRules(GameRules rules) {
+        return forSize(rules.getWidth(), rules.getHeight());
+    }
+
+    /**
+     * Отримує розміщення заданої довжини, будуючи їх при першому зверненні.
+     *
+     * @param length Кількість палуб.
+     * @return Розміщення кораблів цієї довжини.
+     */
+    public Placements forLength(int length) {
+        if(length < 1 || length >= lengths.length()) {
+            throw new IllegalArgumentException("Корабель довжиною " + length + " не вміщується на сітку " + width + "x" + height);
+        }
+        Placements placements = lengths.get(length);
+        if(placements == null) {
+            lengths.compareAndSet(length, null, new Placements(width, height, length));
+            placements = lengths.get(length);
+        }
+        return placements;
+    }
+
+    /**
+     * Отримує ширину сітки.
+     *
+     * @return Ширина сітки.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Отримує висоту сітки.
+     *
+     * @return Висота сітки.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас ProbabilityAI:
+ * ШІ, який кожного ходу для кожної необстріляної клітинки рахує, скільки можливих розміщень
+ * кораблів, що ще на плаву, її накривають з урахуванням відомих промахів, влучень і знищених кораблів.
+ * Потім стріляє в клітинку з найбільшою щільністю. Якщо є поранені кораблі, рахуються лише розміщення,
+ * що проходять через влучення, і кожне з них важить більше за кожне накрите влучення.
+ * Щільність залежить лише від картини сітки, тож її можна брати з EvaluationCache.
+ */
+public class ProbabilityAI extends BattleshipAI {
+    /**
+     * Вага розміщення за кожне накрите влучення в режимі добивання.
+     */
+    private static final int HIT_WEIGHT = 100;
+    /**
+     * Спільна таблиця всіх розміщень кораблів для розміру сітки.
+     */
+    private final PlacementTable placements;
+    /**
+     * Щільність розміщень для кожної клітинки, перераховується кожного ходу, якщо її немає в кеші.
+     */
+    private final int[] density;
+
+    /**
+     * Створює ШІ для сітки з вказаними правилами.
+     *
+     * @param rules Правила гри сітки гравця для атаки.
+     */
+    public ProbabilityAI(GameRules rules) {
+        super(rules);
+        placements = PlacementTable.forRules(rules);
+        density = new int[rules.getCellCount()];
+    }
+
+    /**
+     * Стріляє в клітинку з найбільшою щільністю розміщень.
+     *
+     * @return Індекс вибраної клітинки для атаки.
+     */
+    @Override
+    public int selectCell() {
+        int cell = findDensestCell();
+        moves.remove(cell);
+        return cell;
+    }
+
+    /**
+     * Рахує щільність розміщень для всіх клітинок і вибирає найщільнішу необстріляну клітинку.
+     * Серед однакових вибирає випадково.
+     *
+     * @return Індекс вибраної клітинки.
+     */
+    private int findDensestCell() {
+        int[] evaluation = cachedEvaluation(density);
+        int best = -1;
+        int bestDensity = -1;
+        int ties = 0;
+        for(int cell = 0; cell < evaluation.length; cell++) {
+            if(observed.isOpenHit(cell) || observed.isBlocked(cell)) continue;
+            if(evaluation[cell] > bestDensity) {
+                bestDensity = evaluation[cell];
+                best = cell;
+                ties = 1;
+            } else if(evaluation[cell] == bestDensity && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Рахує щільність розміщень для всіх клітинок.
+     *
+     * @param evaluation Масив для щільності кожної клітинки.
+     * @return Завжди true: щільність повністю визначається картиною сітки.
+     */
+    @Override
+    protected boolean evaluate(int[] evaluation) {
+        boolean targetMode = observed.hasOpenHits();
+        for(int i = 0; i < evaluation.length; i++) {
+            evaluation[i] = 0;
+        }
+        for(int length = 1; length <= observed.getMaxLength(); length++) {
+            int count = observed.getRemaining(length);
+            if(count > 0) addPlacements(evaluation, length, count, targetMode);
+        }
+        return true;
+    }
+
+    /**
+     * Додає до щільності всі можливі розміщення кораблів заданої довжини.
+     *
+     * @param density Масив щільності кожної клітинки.
+     * @param length Кількість палуб.
+     * @param count Кількість таких кораблів на плаву.
+     * @param targetMode True, якщо враховуються лише розміщення через поранені кораблі.
+     */
+    private void addPlacements(int[] density, int length, int count, boolean targetMode) {
+        PlacementTable.Placements table = placements.forLength(length);
+        BitBoard blocked = observed.getBlocked();
+        BitBoard openHits = observed.getOpenHits();
+        for(int placement = 0; placement < table.count(); placement++) {
+            if(table.footprintIntersects(placement, blocked)) continue;
+            int hitsCovered = targetMode ? table.countFootprintIn(placement, openHits) : 0;
+            if(targetMode && hitsCovered == 0) continue;
+            int weight = count * (targetMode ? hitsCovered * HIT_WEIGHT : 1);
+            int step = table.getStep(placement);
+            for(int i = 0, cell = table.getStartCell(placement); i < length; i++, cell += step) {
+                density[cell] += weight;
+            }
+        }
+    }
+}
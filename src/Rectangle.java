@@ -1,3 +1,5 @@
+import java.awt.Component;
+
 /**
  * Морський бій
  * Автор: Герасимчук Олександр
@@ -5,6 +7,7 @@
  * Клас Rectangle
  * Визначає прямокутник із положенням верхнього лівого кута,
  * і ширину та висоту, щоб відобразити розмір прямокутника.
+ * Якщо задано поверхню, на якій малюється прямокутник, він може попросити перемалювати лише свою область.
  */
 public class Rectangle {
     /**
@@ -19,6 +22,10 @@ public class Rectangle {
      * Висота прямокутника.
      */
     protected int height;
+    /**
+     * Компонент, на якому малюється прямокутник, або null.
+     */
+    protected Component surface;
 
     /**
      * Створює новий прямокутник із наданими властивостями.
@@ -40,7 +47,7 @@ public class Rectangle {
      * @param height Висота прямокутника.
      */
     public Rectangle(int x, int y, int width, int height) {
-        this(new Coordinates(x,y),width,height);
+        this(Coordinates.of(x,y),width,height);
     }
 
     /**
@@ -70,6 +77,34 @@ public class Rectangle {
         return startPoint;
     }
 
+    /**
+     * Задає компонент, на якому малюється прямокутник, щоб перемальовувати лише змінені області.
+     *
+     * @param surface Компонент для малювання або null.
+     */
+    public void setSurface(Component surface) {
+        this.surface = surface;
+    }
+
+    /**
+     * Просить поверхню перемалювати всю область прямокутника.
+     */
+    public void repaint() {
+        repaint(startPoint.x, startPoint.y, width, height);
+    }
+
+    /**
+     * Просить поверхню перемалювати вказану область, якщо поверхню задано.
+     *
+     * @param x X координата лівого верхнього кута області.
+     * @param y Y координата лівого верхнього кута області.
+     * @param width Ширина області.
+     * @param height Висота області.
+     */
+    protected void repaint(int x, int y, int width, int height) {
+        if(surface != null) surface.repaint(x, y, width, height);
+    }
+
     /**
      * Перевіряє, чи coords знаходиться всередині прямокутника.
      *
@@ -77,7 +112,18 @@ public class Rectangle {
      * @return True, якщо coords знаходиться всередині цього прямокутника.
      */
     public boolean isInside(Coordinates coords) {
-        return coords.x >= startPoint.x && coords.y >= startPoint.y
-                && coords.x < startPoint.x + width && coords.y < startPoint.y + height;
+        return isInside(coords.x, coords.y);
+    }
+
+    /**
+     * Перевіряє, чи точка знаходиться всередині прямокутника.
+     *
+     * @param x X координата точки.
+     * @param y Y координата точки.
+     * @return True, якщо точка знаходиться всередині цього прямокутника.
+     */
+    public boolean isInside(int x, int y) {
+        return x >= startPoint.x && y >= startPoint.y
+                && x < startPoint.x + width && y < startPoint.y + height;
     }
 }
\ No newline at end of file
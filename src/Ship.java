@@ -1,31 +1,19 @@
-import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Морський бій
  * Автор: Герасимчук Олександр
  *
  * Клас Ship
- * Простий корабель, який можна відобразити на екрані.
- * Надає інформацію про те, скільки палуб має корабель, напрямок корабля, кількість знищених палуб та властивості кольору.
+ * Простий корабель на сітці.
+ * Надає інформацію про те, скільки палуб має корабель, напрямок корабля та які палуби знищені.
+ * Після розміщення на сітці корабель зберігає своє розміщення зі спільної PlacementTable, тож маска клітинок
+ * корабля готова заздалегідь, а влучення записуються в бітову маску палуб. Усі запити не створюють об'єктів.
+ * Малюванням корабля займається GridView.
  */
 public class Ship {
-    /**
-     * Використовується для зміни кольору розміщення.
-     * Аvailable: корабель можна розмістити в поточному місці, яке показано зеленим кольором.
-     * NotАvailable: корабель не можна розмістити в поточному місці, яке показано червоним кольором.
-     * Placed: корабель розміщений і використовуватиме налаштування кольору за замовчуванням.
-     */
-    public enum PlacementColour {Аvailable, NotАvailable, Placed}
     /**
      * Положення корабля.
      */
     private Coordinates shipCoord;
-    /**
-     * Позиція в пікселях для відбраження корабля.
-     */
-    private Coordinates drawCoord;
     /**
      * Кількість палуб корабля.
      */
@@ -35,69 +23,155 @@ public class Ship {
      * False - корабель вертикальний.
      */
     private boolean shipOrientation;
+    /**
+     * Біт i встановлено, якщо палубу i знищено.
+     */
+    private final BitBoard hitDecks;
     /**
      * Кількість знищених палуб, щоб визначити, чи все судно було знищено.
      */
     private int destroyedDecks;
     /**
-     * Зміна кольору під час розміщення корабля, щоб показати доступне чи недоступне розміщення.
+     * Розміщення кораблів цієї довжини, до яких належить корабель, або null, якщо його не розміщено на сітці.
+     */
+    private PlacementTable.Placements placements;
+    /**
+     * Номер розміщення корабля в placements.
      */
-    private PlacementColour placementColour;
+    private int placement;
 
     /**
      * Створює корабель із властивостями за замовчуванням. Припускає, що його вже було розміщено під час створення.
      *
      * @param shipCoord Позиція, де знаходиться корабель.
-     * @param drawCoord Верхній лівий кут комірки, щоб відобразити корабель.
      * @param deck Кількість палуб корабля.
      * @param shipOrientation True - горизонтальний, а false - вертикальний.
      */
-    public Ship(Coordinates shipCoord, Coordinates drawCoord, int deck, boolean shipOrientation) {
+    public Ship(Coordinates shipCoord, int deck, boolean shipOrientation) {
         this.shipCoord = shipCoord;
-        this.drawCoord = drawCoord;
         this.deck = deck;
         this.shipOrientation = shipOrientation;
+        hitDecks = new BitBoard(deck);
         destroyedDecks = 0;
-        placementColour = PlacementColour.Placed;
     }
 
     /**
-     * Малює корабель корабель, спочатку вибираючи колір, а потім малюючи корабель у правильному напрямку.
-     * Вибирає колір залежно від того чи можна розмістити корабель і чи він не знищений.
+     * Перемикає поточний стан між вертикальним і горизонтальним. Корабель перестає бути розміщеним на сітці.
+     */
+    public void flipOrientation() {
+        shipOrientation = !shipOrientation;
+        placements = null;
+    }
+
+    /**
+     * Запам'ятовує розміщення корабля на сітці. Позиція і напрямок корабля мають збігатися з розміщенням
+     * (однопалубний корабель має лише горизонтальні розміщення за будь-якого напрямку).
      *
-     * @param g Посилання на графічний об’єкт для візуалізації.
+     * @param placements Розміщення кораблів цієї довжини для розміру сітки.
+     * @param placement Номер розміщення корабля.
      */
-    public void draw(Graphics g) {
-        if(placementColour == PlacementColour.Placed) {
-            g.setColor(destroyedDecks >= deck ? new Color(246, 0, 0 ): new Color(99, 99, 234));
-        } else {
-            g.setColor(placementColour == PlacementColour.Аvailable ? new Color(36, 250, 0 ) : new Color(246, 0, 0 ));
+    public void setPlacement(PlacementTable.Placements placements, int placement) {
+        if(placements.getLength() != deck || (deck > 1 && placements.isHorizontal(placement) != shipOrientation)) {
+            throw new IllegalArgumentException("Розміщення " + placement + " не відповідає кораблю з " + deck + " палуб");
         }
-        if(shipOrientation) drawHorizontal(g);
-        else drawVertical(g);
+        this.placements = placements;
+        this.placement = placement;
     }
 
     /**
-     * Встановлює колір розташування, щоб вказати стан корабля.
+     * Перевіряє, чи корабель розміщено на сітці.
      *
-   * @param placementColour Аvailable встановлює зелений колір, NotАvailable встановлює червоний, Placed встановлює значення за замовчуванням.
+     * @return True, якщо розміщення відоме.
      */
-    public void setPlacementColour(PlacementColour placementColour) {
-        this.placementColour = placementColour;
+    public boolean isPlaced() {
+        return placements != null;
     }
 
     /**
-     * Перемикає поточний стан між вертикальним і горизонтальним.
+     * Отримує індекс клітинки палуби розміщеного корабля.
+     *
+     * @param deckIndex Номер палуби від 0 до getNumberOfDeck() - 1.
+     * @return Індекс клітинки палуби.
      */
-    public void flipOrientation() {
-        shipOrientation = !shipOrientation;
+    public int getDeckCell(int deckIndex) {
+        return placements().getStartCell(placement) + deckIndex * placements.getStep(placement);
+    }
+
+    /**
+     * Отримує номер палуби розміщеного корабля в клітинці.
+     *
+     * @param cell Індекс клітинки.
+     * @return Номер палуби або -1, якщо корабель не займає клітинку.
+     */
+    public int getDeckIndex(int cell) {
+        int offset = cell - placements().getStartCell(placement);
+        int step = placements.getStep(placement);
+        if(offset < 0 || offset % step != 0 || offset / step >= deck) return -1;
+        return offset / step;
+    }
+
+    /**
+     * Перевіряє, чи корабель перетинається з клітинками шару, за готовою маскою клітинок корабля.
+     *
+     * @param board Шар клітинок.
+     * @return True, якщо хоча б одна палуба лежить на встановленому біті.
+     */
+    public boolean footprintIntersects(BitBoard board) {
+        return placements().footprintIntersects(placement, board);
+    }
+
+    /**
+     * Додає клітинки корабля до шару за готовою маскою.
+     *
+     * @param board Шар клітинок.
+     */
+    public void addFootprint(BitBoard board) {
+        placements().addFootprint(placement, board);
+    }
+
+    /**
+     * Додає клітинки корабля разом з ореолом до шару за готовою маскою.
+     *
+     * @param board Шар клітинок.
+     */
+    public void addHalo(BitBoard board) {
+        placements().addHalo(placement, board);
     }
 
     /**
-     * Лічильник знищених палуб.
+     * Записує влучення в клітинку корабля. Повторне влучення в ту саму палубу нічого не змінює.
+     *
+     * @param cell Індекс клітинки розміщеного корабля.
+     * @return True, якщо палуба була цілою до цього пострілу.
      */
-    public void destroyedDecks() {
+    public boolean registerHit(int cell) {
+        int deckIndex = getDeckIndex(cell);
+        if(deckIndex < 0) {
+            throw new IllegalArgumentException("Корабель не займає клітинку " + cell);
+        }
+        if(hitDecks.get(deckIndex)) return false;
+        hitDecks.set(deckIndex);
         destroyedDecks++;
+        return true;
+    }
+
+    /**
+     * Перевіряє, чи палубу знищено.
+     *
+     * @param deckIndex Номер палуби від 0 до getNumberOfDeck() - 1.
+     * @return True, якщо в палубу влучили.
+     */
+    public boolean isDeckHit(int deckIndex) {
+        return hitDecks.get(deckIndex);
+    }
+
+    /**
+     * Отримує кількість знищених палуб.
+     *
+     * @return Кількість палуб, у які влучили.
+     */
+    public int getDestroyedDecks() {
+        return destroyedDecks;
     }
 
     /**
@@ -110,14 +184,22 @@ public class Ship {
     }
 
     /**
-     * Оновлює позицію для зображення корабля.
+     * Оновлює позицію корабля на сітці.
      *
      * @param shipCoord Позиція корабля.
-     * @param drawCoord Позиція для малювання корабля в пікселях.
      */
-    public void setDrawPosition(Coordinates shipCoord, Coordinates drawCoord) {
-        this.drawCoord = drawCoord;
+    public void setPosition(Coordinates shipCoord) {
         this.shipCoord = shipCoord;
+        placements = null;
+    }
+
+    /**
+     * Отримує позицію першої палуби корабля.
+     *
+     * @return Позиція корабля на сітці.
+     */
+    public Coordinates getPosition() {
+        return shipCoord;
     }
 
     /**
@@ -139,45 +221,14 @@ public class Ship {
     }
 
     /**
-     * Отримує список усіх координат, які займає цей корабель, щоб використовувати їх для перевірки ШІ.
+     * Отримує розміщення корабля, перевіряючи, що його розміщено на сітці.
      *
-     * @return Список усіх координат, які займає цей корабель.
+     * @return Розміщення кораблів цієї довжини.
      */
-    public List<Coordinates> getNumberOfOccupiedCoordinates() {
-        List<Coordinates> result = new ArrayList<>();
-        if(shipOrientation) {
-            for(int x = 0; x < deck; x++) {
-                result.add(new Coordinates(shipCoord.x+x, shipCoord.y));
-            }
-        } else {
-            for(int y = 0; y < deck; y++) {
-                result.add(new Coordinates(shipCoord.x, shipCoord.y+y));
-            }
+    private PlacementTable.Placements placements() {
+        if(placements == null) {
+            throw new IllegalStateException("Корабель не розміщено на сітці");
         }
-        return result;
-    }
-
-    /**
-     * Малює вертикальний корабель на основі кількості палуб.
-     *
-     * @param g Посилання на графічний об’єкт для візуалізації.
-     */
-    public void drawVertical(Graphics g) {
-        int shipWidth = (int)(GameGrid.SIZE_OF_CELL);
-        int shipX = drawCoord.x + GameGrid.SIZE_OF_CELL / 2 - shipWidth / 2;
-        g.fillRect(shipX, (drawCoord.y + GameGrid.SIZE_OF_CELL / 4 - shipWidth / 4), shipWidth, (int) (GameGrid.SIZE_OF_CELL * (deck)));
-
-    }
-
-    /**
-     * Малює горизонтальний корабель на основі кількості палуб.
-     *
-     * @param g Посилання на графічний об’єкт для візуалізації.
-     */
-    public void drawHorizontal(Graphics g) {
-        int shipWidth = (int)(GameGrid.SIZE_OF_CELL);
-        int shipY = drawCoord.y + GameGrid.SIZE_OF_CELL / 2 - shipWidth / 2;
-        g.fillRect((drawCoord.x + GameGrid.SIZE_OF_CELL / 2 - shipWidth / 2), shipY, (int) (GameGrid.SIZE_OF_CELL * (deck)), shipWidth);
-
+        return placements;
     }
-}
\ No newline at end of file
+}
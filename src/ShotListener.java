@@ -0,0 +1,19 @@
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Інтерфейс ShotListener
+ * Отримує результат кожного пострілу по GameGrid одразу після того, як його оброблено,
+ * щоб інтерфейс, ШІ та статистика не опитували сітку після кожного ходу.
+ */
+public interface ShotListener {
+    /**
+     * Викликається після обробки нового пострілу.
+     *
+     * @param grid Сітка, по якій стріляли.
+     * @param pos Позиція пострілу.
+     * @param result Результат пострілу.
+     * @param ship Корабель, у який влучили, або null у разі промаху.
+     */
+    void shotResolved(GameGrid grid, Coordinates pos, GameGrid.ShotResult result, Ship ship);
+}
@@ -0,0 +1,107 @@
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас ShotOutcome
+ * Компактний запис результату пострілу в одному long: індекс клітинки, результат і довжина знищеного корабля.
+ * Саме такі записи отримує ШІ замість доступу до сітки суперника, тож їх легко передати
+ * в інший потік, процес чи по мережі.
+ * Біти 0-31 - індекс клітинки, 32-39 - номер ShotResult, 40-63 - довжина знищеного корабля або 0.
+ */
+public final class ShotOutcome {
+    /**
+     * Зсув поля результату.
+     */
+    private static final int RESULT_SHIFT = 32;
+    /**
+     * Зсув поля довжини знищеного корабля.
+     */
+    private static final int LENGTH_SHIFT = 40;
+    /**
+     * Найбільша довжина корабля, що вміщується в запис.
+     */
+    private static final int MAX_LENGTH = (1 << 24) - 1;
+    /**
+     * Усі результати пострілу в порядку їхніх номерів.
+     */
+    private static final GameGrid.ShotResult[] RESULTS = GameGrid.ShotResult.values();
+
+    /**
+     * Записи створюються лише статичними методами.
+     */
+    private ShotOutcome() {
+    }
+
+    /**
+     * Пакує результат пострілу.
+     *
+     * @param cell Індекс клітинки y * ширина + x.
+     * @param result Результат пострілу.
+     * @param sunkLength Кількість палуб знищеного корабля або 0, якщо корабель не знищено.
+     * @return Запис результату.
+     */
+    public static long pack(int cell, GameGrid.ShotResult result, int sunkLength) {
+        if(cell < 0) {
+            throw new IllegalArgumentException("Недійсний індекс клітинки: " + cell);
+        }
+        if(result.isSunk() ? sunkLength < 1 || sunkLength > MAX_LENGTH : sunkLength != 0) {
+            throw new IllegalArgumentException("Недійсна довжина знищеного корабля " + sunkLength + " для " + result);
+        }
+        return (cell & 0xFFFFFFFFL) | ((long) result.ordinal() << RESULT_SHIFT) | ((long) sunkLength << LENGTH_SHIFT);
+    }
+
+    /**
+     * Записує результат пострілу по сітці, читаючи довжину знищеного корабля з неї.
+     *
+     * @param grid Сітка, по якій стріляли.
+     * @param pos Позиція пострілу.
+     * @param result Результат, який повернув GameGrid.markCoord.
+     * @return Запис результату.
+     */
+    public static long of(GameGrid grid, Coordinates pos, GameGrid.ShotResult result) {
+        return of(grid, grid.cellIndex(pos.x, pos.y), result);
+    }
+
+    /**
+     * Записує результат пострілу по клітинці сітки, читаючи довжину знищеного корабля з неї.
+     *
+     * @param grid Сітка, по якій стріляли.
+     * @param cell Індекс клітинки пострілу.
+     * @param result Результат, який повернув GameGrid.markCell.
+     * @return Запис результату.
+     */
+    public static long of(GameGrid grid, int cell, GameGrid.ShotResult result) {
+        int sunkLength = result.isSunk() ? grid.getShipAtCell(cell).getNumberOfDeck() : 0;
+        return pack(cell, result, sunkLength);
+    }
+
+    /**
+     * Отримує індекс клітинки пострілу.
+     *
+     * @param outcome Запис результату.
+     * @return Індекс клітинки.
+     */
+    public static int cell(long outcome) {
+        return (int) outcome;
+    }
+
+    /**
+     * Отримує результат пострілу.
+     *
+     * @param outcome Запис результату.
+     * @return Результат пострілу.
+     */
+    public static GameGrid.ShotResult result(long outcome) {
+        return RESULTS[(int) (outcome >>> RESULT_SHIFT) & 0xFF];
+    }
+
+    /**
+     * Отримує довжину знищеного корабля.
+     *
+     * @param outcome Запис результату.
+     * @return Кількість палуб або 0, якщо корабель не знищено.
+     */
+    public static int sunkLength(long outcome) {
+        return (int) (outcome >>> LENGTH_SHIFT);
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.Collections;
-
 /**
  * Морський бій
  * Author: Герасимчук Олександр
@@ -11,11 +9,11 @@ public class SimpleAI extends BattleshipAI{
     /**
      * Ініціалізує простий ШІ шляхом рандомізації порядку ходів.
      *
-     * @param playerGrid Посилання на сітку гравця для атаки.
+     * @param rules Правила гри сітки гравця для атаки.
      */
-    public SimpleAI(GameGrid playerGrid) {
-        super(playerGrid);
-        Collections.shuffle(moves);
+    public SimpleAI(GameRules rules) {
+        super(rules);
+        moves.shuffle(random);
     }
 
     /**
@@ -24,18 +22,16 @@ public class SimpleAI extends BattleshipAI{
     @Override
     public void reset() {
         super.reset();
-        Collections.shuffle(moves);
+        moves.shuffle(random);
     }
 
     /**
-     * Бере хід з початку списку та повертає його.
+     * Бере хід з кінця перемішаного набору.
      *
-     * @return Координати ходу.
+     * @return Індекс клітинки ходу.
      */
     @Override
-    public Coordinates selectMove() {
-        Coordinates nextMove = moves.get(0);
-        moves.remove(0);
-        return nextMove;
+    public int selectCell() {
+        return moves.removeLast();
     }
 }
\ No newline at end of file
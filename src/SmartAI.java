@@ -1,5 +1,5 @@
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -13,9 +13,49 @@ import java.util.List;
  */
 public class SmartAI extends BattleshipAI {
     /**
-     * Список позицій, де були ранені кораблі, які ще не знищені.
+     * Група сусідніх влучень на одній лінії, що ще не належать знищеному кораблю.
+     * Клітинки групи - від start до end з кроком step: 1 для горизонтальної, ширина сітки для вертикальної,
+     * 0 для одного влучення, орієнтація якого ще невідома.
      */
-    private List<Coordinates> hitShips;
+    private static class HitCluster {
+        /**
+         * Індекс першої клітинки.
+         */
+        private int start;
+        /**
+         * Індекс останньої клітинки.
+         */
+        private int end;
+        /**
+         * Крок між клітинками або 0 для одного влучення.
+         */
+        private int step;
+        /**
+         * Позиція групи в списку активних груп.
+         */
+        private int index;
+    }
+
+    /**
+     * Групи влучень у ранені кораблі, які ще не знищені.
+     */
+    private List<HitCluster> clusters;
+    /**
+     * Групи, що звільнилися і можуть бути використані знову без створення нових об'єктів.
+     */
+    private List<HitCluster> freeClusters;
+    /**
+     * Група кожної клітинки або null, якщо клітинка не є відкритим влученням.
+     */
+    private HitCluster[] clusterOf;
+    /**
+     * Позначки клітинок, уже врахованих під час поточного вибору ходу, щоб не рахувати їх двічі.
+     */
+    private int[] seenStamp;
+    /**
+     * Поточне значення позначки для seenStamp.
+     */
+    private int stamp;
     /**
      * Перевірка налагодження ШІ.
      * true - ввімкнена, false - вимкнена.
@@ -32,21 +72,35 @@ public class SmartAI extends BattleshipAI {
      * Якщо false, буде використано лише наступний випадковий вибір.
      */
     private boolean maximiseAdjacentRandomisation;
+    /**
+     * Необстріляні клітинки, згруповані за кількістю необстріляних сусідів.
+     * Створюється лише тоді, коли maximiseAdjacentRandomisation увімкнено.
+     */
+    private AdjacencyBuckets adjacency;
+    /**
+     * Спільна таблиця сусідів клітинок для розміру сітки.
+     */
+    private final NeighbourTable neighbours;
 
     /**
-     * Створює базові налаштування для ШІ, встановлюючи посилання на сітку гравця,
+     * Створює базові налаштування для ШІ за правилами гри сітки гравця
      * і створює список усіх дійсних ходів.
      *
-     * @param playerGrid Посилання на сітку, якою керує гравець.
+     * @param rules Правила гри сітки, якою керує гравець.
      * @param preferMovesFormingLine True дозволить найрозумнішій версії штучного інтелекту намагатися формувати ряди під час атаки кораблів.
      * @param maximiseAdjacentRandomisation True змушує рандомним атакам віддавати перевагу позиціям сітки, навколо яких є більше неатакованих точок.
      */
-    public SmartAI(GameGrid playerGrid, boolean preferMovesFormingLine, boolean maximiseAdjacentRandomisation) {
-        super(playerGrid);
-        hitShips = new ArrayList<>();
+    public SmartAI(GameRules rules, boolean preferMovesFormingLine, boolean maximiseAdjacentRandomisation) {
+        super(rules);
+        clusters = new ArrayList<>();
+        freeClusters = new ArrayList<>();
+        clusterOf = new HitCluster[rules.getCellCount()];
+        neighbours = NeighbourTable.forRules(rules);
+        seenStamp = new int[rules.getCellCount()];
         this.preferMovesFormingLine = preferMovesFormingLine;
         this.maximiseAdjacentRandomisation = maximiseAdjacentRandomisation;
-        Collections.shuffle(moves);
+        if(maximiseAdjacentRandomisation) adjacency = new AdjacencyBuckets(rules);
+        moves.shuffle(random);
     }
 
     /**
@@ -55,8 +109,13 @@ public class SmartAI extends BattleshipAI {
     @Override
     public void reset() {
         super.reset();
-        hitShips.clear();
-        Collections.shuffle(moves);
+        for(HitCluster cluster : clusters) {
+            freeClusters.add(cluster);
+        }
+        clusters.clear();
+        Arrays.fill(clusterOf, null);
+        if(adjacency != null) adjacency.reset();
+        moves.shuffle(random);
     }
 
     /**
@@ -64,241 +123,202 @@ public class SmartAI extends BattleshipAI {
      * ШІ вибере атаку поруч із відомими місцями ураження корабля, якщо корабель був ранений, інакше
      * він вибере наступний випадковий хід.
      *
-     * @return Вибрана позиція для атаки.
+     * @return Індекс вибраної клітинки для атаки.
      */
     @Override
-    public Coordinates selectMove() {
+    public int selectCell() {
         if(debugAI) System.out.println("\nПОЧАТОК ХОДУ===========");
-        Coordinates selectedMove;
+        int cell = -1;
         // Якщо корабель був уражений, але не знищений
-        if(hitShips.size() > 0) {
-            if(preferMovesFormingLine) {
-                selectedMove = smarterAttack();
-            } else {
-                selectedMove = smartAttack();
-            }
-        } else {
+        if(!clusters.isEmpty()) {
+            if(preferMovesFormingLine) cell = pickClusterEnd();
+            if(cell < 0) cell = pickAdjacentToHits();
+        }
+        if(cell < 0) {
             if(maximiseAdjacentRandomisation) {
-                selectedMove = findLeastAttackedCoords();
+                cell = adjacency.pickMostOpen(random);
             } else {
                 // Використовуйте випадковий хід
-                selectedMove = moves.get(0);
+                cell = moves.get(0);
             }
         }
-        updateShipHits(selectedMove);
-        moves.remove(selectedMove);
+        moves.remove(cell);
+        if(adjacency != null) adjacency.remove(cell);
         if(debugAI) {
-            System.out.println("Хід ШІ: " + selectedMove);
+            System.out.println("Хід ШІ: " + toCoordinates(cell));
             System.out.println("КІНЕЦЬ ХОДУ===========");
         }
-        return selectedMove;
+        return cell;
     }
 
     /**
-     * Отримує список ходів, що прилягають до враженої клітинки корабля, і вибирає один випадковим чином.
+     * Вибирає випадково один з необстріляних кінців груп, орієнтація яких уже відома,
+     * тобто хід, що продовжує лінію принаймні з двох влучень.
      *
-     * @return Випадковий хід, який має хороший шанс знову влучити в корабель.
+     * @return Індекс клітинки або -1, якщо такого кінця немає.
      */
-    private Coordinates smartAttack() {
-        List<Coordinates> suggestedMoves = getAdjacentSmartMoves();
-        Collections.shuffle(suggestedMoves);
-        return  suggestedMoves.get(0);
-    }
-
-
-    /**
-     * Отримує список ходів, що прилягають до враженої клітинки корабля, і вибирає один на основі
-     * чи утворює він лінію принаймні з двох елементів із сусідніми ударами корабля.
-     * Якщо оптимального припущення не знайдено, вибирається випадковий сусідній хід.
-     *
-     * @return Дійсний хід, який є суміжним із hitShips, віддаючи перевагу тому, який утворює лінію.
-     */
-    private Coordinates smarterAttack() {
-        List<Coordinates> suggestedMoves = getAdjacentSmartMoves();
-        for(Coordinates possibleOptimalMove : suggestedMoves) {
-            if(atLeastTwoHitsInDirection(possibleOptimalMove, Coordinates.LEFT)) return possibleOptimalMove;
-            if(atLeastTwoHitsInDirection(possibleOptimalMove, Coordinates.RIGHT)) return possibleOptimalMove;
-            if(atLeastTwoHitsInDirection(possibleOptimalMove, Coordinates.DOWN)) return possibleOptimalMove;
-            if(atLeastTwoHitsInDirection(possibleOptimalMove, Coordinates.UP)) return possibleOptimalMove;
-        }
-        // Оптимального вибору не знайдено, просто вибере хід випадковим чином.
-        Collections.shuffle(suggestedMoves);
-        return  suggestedMoves.get(0);
-    }
-
-    /**
-     * Шукає дійсний хід із найбільшою кількістю суміжних клітинок, які не зазнали атаки.
-     *
-     * @return Перша позиція з найвищим балом у списку дійсних ходів.
-     */
-    private Coordinates findLeastAttackedCoords() {
-        Coordinates coords = moves.get(0);;
-        int leastAttacked = -1;
-        for(int i = 0; i < moves.size(); i++) {
-            int count = countAdjacentNotAttackedCoords(moves.get(i));
-            if(count == 4) {
-                return moves.get(i);
-            } else if(count > leastAttacked) {
-                leastAttacked = count;
-                coords = moves.get(i);
-            }
+    private int pickClusterEnd() {
+        int width = rules.getWidth();
+        int chosen = -1;
+        int seen = 0;
+        for(int i = 0; i < clusters.size(); i++) {
+            HitCluster cluster = clusters.get(i);
+            if(cluster.step == 0) continue;
+            boolean horizontal = cluster.step == 1;
+            boolean hasBefore = horizontal ? cluster.start % width != 0 : cluster.start >= width;
+            boolean hasAfter = horizontal ? cluster.end % width != width - 1 : cluster.end + width < rules.getCellCount();
+            int before = cluster.start - cluster.step;
+            int after = cluster.end + cluster.step;
+            if(hasBefore && moves.contains(before) && random.nextInt(++seen) == 0) chosen = before;
+            if(hasAfter && moves.contains(after) && random.nextInt(++seen) == 0) chosen = after;
         }
-        return coords;
+        if(debugAI && chosen >= 0) System.out.println("Знайдено кращий хід: " + toCoordinates(chosen));
+        return chosen;
     }
 
     /**
-     * Підраховує кількість суміжних комірок, які не були позначені навколо вказаної позиції.
+     * Вибирає випадково одну з необстріляних клітинок, суміжних з будь-яким відкритим влученням.
+     * Кожна клітинка враховується один раз, навіть якщо вона поруч з кількома влученнями.
      *
-     * @param coords Положення для підрахунку суміжних клітинок.
-     * @return Кількість суміжних клітинок, які не були позначені навколо позиції.
+     * @return Індекс клітинки або -1, якщо таких клітинок немає.
      */
-    private int countAdjacentNotAttackedCoords(Coordinates coords) {
-        List<Coordinates> adjacentCoords = getAdjacentCells(coords);
-        int notAttacked = 0;
-        for(Coordinates adjacentCell : adjacentCoords) {
-            if(!gameGrid.getMarkAtPosition(adjacentCell).isMarked()) {
-                notAttacked++;
+    private int pickAdjacentToHits() {
+        int chosen = -1;
+        int seen = 0;
+        stamp++;
+        for(int i = 0; i < clusters.size(); i++) {
+            HitCluster cluster = clusters.get(i);
+            int step = cluster.step == 0 ? 1 : cluster.step;
+            for(int hit = cluster.start; hit <= cluster.end; hit += step) {
+                for(int k = 0; k < neighbours.getOrthogonalCount(hit); k++) {
+                    int neighbour = neighbours.getOrthogonal(hit, k);
+                    if(offerCandidate(neighbour) && random.nextInt(++seen) == 0) chosen = neighbour;
+                }
             }
         }
-        return notAttacked;
+        return chosen;
     }
 
     /**
-     * Перевіряє, чи є два сусідніх удари корабля в напрямку від початкової точки тесту.
+     * Перевіряє, чи клітинка є дійсним ходом, який ще не враховано під час поточного вибору, і позначає її.
      *
-     * @param startCoord Позиція для початку.
-     * @param direction Напрямок руху з початкової позиції.
-     * @return True, якщо є два сусідніх удари корабля у вказаному напрямку.
+     * @param cell Індекс клітинки.
+     * @return True, якщо клітинку слід врахувати.
      */
-    private boolean atLeastTwoHitsInDirection(Coordinates startCoord, Coordinates direction) {
-        Coordinates testCoords = new Coordinates(startCoord);
-        testCoords.add(direction);
-        if(!hitShips.contains(testCoords)) return false;
-        testCoords.add(direction);
-        if(!hitShips.contains(testCoords)) return false;
-        if(debugAI) System.out.println("Знайдено кращий хід ВІД: " + startCoord + " ДО: " + testCoords);
+    private boolean offerCandidate(int cell) {
+        if(seenStamp[cell] == stamp || !moves.contains(cell)) return false;
+        seenStamp[cell] = stamp;
         return true;
     }
 
     /**
-     * Отримує суміжні комірки навколо кожної враженої клітинки і створює унікальний список
-     * елементів, які також ще перебувають у дійсному списку переміщення.
+     * Враховує результат пострілу. Влучення додається до груп, а якщо корабель знищено,
+     * групи з його клітинками розпускаються.
      *
-     * @return Список усіх дійсних ходів, які є суміжними клітинками з поточними ударами корабля.
+     * @param cell Індекс клітинки пострілу.
+     * @param result Результат пострілу.
+     * @param sunkLength Кількість палуб знищеного корабля або 0, якщо корабель не знищено.
      */
-    private List<Coordinates> getAdjacentSmartMoves() {
-        List<Coordinates> res = new ArrayList<>();
-        for(Coordinates shipHitPos : hitShips) {
-            List<Coordinates> adjacentCoords = getAdjacentCells(shipHitPos);
-            for(Coordinates adjacentCoord : adjacentCoords) {
-                if(!res.contains(adjacentCoord) && moves.contains(adjacentCoord)) {
-                    res.add(adjacentCoord);
-                }
-            }
-        }
-        if(debugAI) {
-            printPositionList("Ранений корабель: ", hitShips);
-            printPositionList("Суміжні кращі ходи: ", res);
+    @Override
+    public void observe(int cell, GameGrid.ShotResult result, int sunkLength) {
+        if(result == GameGrid.ShotResult.ALREADY_SHOT) return;
+        super.observe(cell, result, sunkLength);
+        if(adjacency != null) adjacency.remove(cell);
+        if(!result.isHit()) return;
+        addHit(cell);
+        if(!result.isSunk()) return;
+        // Клітинки, які картина сітки визнала частиною знищеного корабля
+        int step = observed.getLastSunkStep();
+        for(int i = 0, shipCell = observed.getLastSunkStart(); i < observed.getLastSunkCells(); i++, shipCell += step) {
+            HitCluster cluster = clusterOf[shipCell];
+            if(cluster != null) dissolve(cluster);
         }
-        return res;
     }
 
     /**
-     * Метод для друку списку позицій.
+     * Додає влучення до групи, яку воно продовжує вздовж її лінії, і зливає дві групи, якщо влучення їх з'єднало.
+     * Якщо жодна сусідня група не продовжується, створює нову групу з одного влучення.
      *
-     * @param prefix Повідомлення налагодження для показу перед даними.
-     * @param data Список елементів для відображення у формі [,,,]
+     * @param cell Індекс клітинки влучення.
      */
-    private void printPositionList(String prefix, List<Coordinates> data) {
-        String res = "[";
-        for(int i = 0; i < data.size(); i++) {
-            res += data.get(i);
-            if(i != data.size()-1) {
-                res += ", ";
-            }
+    private void addHit(int cell) {
+        HitCluster joined = null;
+        for(int k = 0; k < neighbours.getOrthogonalCount(cell); k++) {
+            int neighbour = neighbours.getOrthogonal(cell, k);
+            joined = extend(joined, cell, neighbour, Math.abs(neighbour - cell));
+        }
+        if(joined == null) {
+            HitCluster cluster = freeClusters.isEmpty() ? new HitCluster() : freeClusters.remove(freeClusters.size() - 1);
+            cluster.start = cell;
+            cluster.end = cell;
+            cluster.step = 0;
+            cluster.index = clusters.size();
+            clusters.add(cluster);
+            clusterOf[cell] = cluster;
         }
-        res += "]";
-        System.out.println(prefix + " " + res);
     }
 
     /**
-     * Створює список усіх суміжних клітинок навколо позиції, за винятком будь-якої з них поза сіткою.
+     * Намагається продовжити влученням групу в сусідній клітинці.
+     * Якщо влучення вже приєднано до іншої групи на тій самій лінії, дві групи зливаються.
      *
-     * @param coord Позиція для пошуку суміжних комірок.
-     * @return Список усіх суміжних позицій, які знаходяться всередині простору сітки.
+     * @param joined Група, до якої влучення вже приєднано, або null.
+     * @param cell Індекс клітинки влучення.
+     * @param neighbour Індекс сусідньої клітинки.
+     * @param step Крок лінії між влученням і сусідом: 1 або ширина сітки.
+     * @return Група, до якої тепер належить влучення, або null.
      */
-    private List<Coordinates> getAdjacentCells(Coordinates coord) {
-        List<Coordinates> res = new ArrayList<>();
-        if(coord.x != 0) {
-            Coordinates left = new Coordinates(coord);
-            left.add(Coordinates.LEFT);
-            res.add(left);
-        }
-        if(coord.x != GameGrid.GRID_WIDTH-1) {
-            Coordinates right = new Coordinates(coord);
-            right.add(Coordinates.RIGHT);
-            res.add(right);
-        }
-        if(coord.y != 0) {
-            Coordinates up = new Coordinates(coord);
-            up.add(Coordinates.UP);
-            res.add(up);
+    private HitCluster extend(HitCluster joined, int cell, int neighbour, int step) {
+        HitCluster cluster = clusterOf[neighbour];
+        if(cluster == null || cluster == joined || (cluster.step != 0 && cluster.step != step)) return joined;
+        if(joined == null) {
+            cluster.step = step;
+            if(cell < cluster.start) cluster.start = cell;
+            if(cell > cluster.end) cluster.end = cell;
+            clusterOf[cell] = cluster;
+            return cluster;
         }
-        if(coord.y != GameGrid.GRID_HEIGHT-1) {
-            Coordinates down = new Coordinates(coord);
-            down.add(Coordinates.DOWN);
-            res.add(down);
+        if(joined.step != step) return joined;
+        // Влучення з'єднало дві групи на одній лінії
+        for(int merged = cluster.start; merged <= cluster.end; merged += step) {
+            clusterOf[merged] = joined;
         }
-        return res;
+        joined.start = Math.min(joined.start, cluster.start);
+        joined.end = Math.max(joined.end, cluster.end);
+        release(cluster);
+        return joined;
     }
 
     /**
-     * Перевіряє, чи позиція "влучає" в корабель. Потім оцінює, чи корабель буде знищено.
-     * Якщо його буде знищено, усі дані про корабель буде очищено.
+     * Видаляє групу, що містить клітинки знищеного корабля. Влучення групи, які ще залишаються відкритими
+     * (якщо кораблі можуть торкатися), додаються знову як окремі групи.
      *
-     * @param testCoords Позиція, яка оцінюється для влучення в корабель.
+     * @param cluster Група для видалення.
      */
-    private void updateShipHits(Coordinates testCoords) {
-        Mark mark = gameGrid.getMarkAtPosition(testCoords);
-        if(mark.isHasShip()) {
-            hitShips.add(testCoords);
-            // Перевірте, чи це було останнє місце, куди влучили на кораблі
-            List<Coordinates> allPositionsOfLastShip = mark.getShip().getNumberOfOccupiedCoordinates();
-            if(debugAI) printPositionList("Останній корабель", allPositionsOfLastShip);
-            boolean hitAllOfShip = containsAllPositions(allPositionsOfLastShip, hitShips);
-            // Якщо так, видалити дані корабля
-            if(hitAllOfShip) {
-                for(Coordinates shipPosition : allPositionsOfLastShip) {
-                    for(int i = 0; i < hitShips.size(); i++) {
-                        if(hitShips.get(i).equals(shipPosition)) {
-                            hitShips.remove(i);
-                            if(debugAI) System.out.println("Видалений " + shipPosition);
-                            break;
-                        }
-                    }
-                }
-            }
+    private void dissolve(HitCluster cluster) {
+        int start = cluster.start;
+        int end = cluster.end;
+        int step = cluster.step == 0 ? 1 : cluster.step;
+        for(int hit = start; hit <= end; hit += step) {
+            clusterOf[hit] = null;
+        }
+        release(cluster);
+        for(int hit = start; hit <= end; hit += step) {
+            if(observed.isOpenHit(hit)) addHit(hit);
         }
     }
 
     /**
-     * Перевіряє, чи всі позиції в coordsToSearch знаходяться в listToSearchIn.
+     * Прибирає групу зі списку активних, переносячи на її місце останню групу, і повертає її до вільних.
      *
-     * @param coordsToSearch Список позицій для пошуку в усіх.
-     * @param listToSearchIn Список позицій для пошуку всередині.
-     * @return True, якщо всі позиції в coordsToSearch знаходяться в listToSearchIn.
+     * @param cluster Група для звільнення.
      */
-    private boolean containsAllPositions(List<Coordinates> coordsToSearch, List<Coordinates> listToSearchIn) {
-        for(Coordinates searchCoords : coordsToSearch) {
-            boolean found = false;
-            for(Coordinates searchInPosition : listToSearchIn) {
-                if(searchInPosition.equals(searchCoords)) {
-                    found = true;
-                    break;
-                }
-            }
-            if(!found) return false;
+    private void release(HitCluster cluster) {
+        HitCluster last = clusters.remove(clusters.size() - 1);
+        if(last != cluster) {
+            clusters.set(cluster.index, last);
+            last.index = cluster.index;
         }
-        return true;
+        freeClusters.add(cluster);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас SpriteAtlas
+ * Спільні кольори малювання і одне зображення-атлас із заздалегідь намальованими спрайтами клітинки:
+ * точкою промаху і точкою влучення. Малювання спрайта - це копіювання частини атласу без жодних об'єктів,
+ * замість растеризації кола при кожному малюванні.
+ * Атлас створюється один раз при першому зверненні і спільний для всіх сіток.
+ */
+public final class SpriteAtlas {
+    /**
+     * Спрайт клітинки в атласі.
+     * MISS: точка промаху.
+     * HIT: точка влучення в корабель.
+     */
+    public enum Sprite { MISS, HIT }
+
+    /**
+     * Колір розміщеного корабля.
+     */
+    public static final Color SHIP_COLOUR = new Color(99, 99, 234);
+    /**
+     * Колір знищеного корабля і корабля, який не можна розмістити.
+     */
+    public static final Color DESTROYED_COLOUR = new Color(246, 0, 0);
+    /**
+     * Колір корабля, який можна розмістити.
+     */
+    public static final Color AVAILABLE_COLOUR = new Color(36, 250, 0);
+    /**
+     * Колір точки влучення в корабель.
+     */
+    public static final Color HIT_COLOUR = Color.RED;
+    /**
+     * Колір точки промаху.
+     */
+    public static final Color MISS_COLOUR = Color.BLACK;
+    /**
+     * Відступ точки від країв клітинки.
+     */
+    public static final int MARK_INDENT = 13;
+    /**
+     * Розмір спрайта в пікселях, такий самий, як клітинка сітки.
+     */
+    private static final int SIZE = GridView.SIZE_OF_CELL;
+    /**
+     * Атлас, створений при першому зверненні.
+     */
+    private static SpriteAtlas instance;
+    /**
+     * Зображення зі спрайтами в рядок у порядку Sprite.
+     */
+    private final BufferedImage image;
+
+    /**
+     * Малює всі спрайти в атлас.
+     */
+    private SpriteAtlas() {
+        image = new BufferedImage(SIZE * Sprite.values().length, SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        for(Sprite sprite : Sprite.values()) {
+            g.setColor(sprite == Sprite.HIT ? HIT_COLOUR : MISS_COLOUR);
+            g.fillOval(sprite.ordinal() * SIZE + MARK_INDENT + 1, MARK_INDENT + 1,
+                    SIZE - MARK_INDENT * 2, SIZE - MARK_INDENT * 2);
+        }
+        g.dispose();
+    }
+
+    /**
+     * Отримує спільний атлас, створюючи його при першому зверненні.
+     *
+     * @return Атлас спрайтів.
+     */
+    public static synchronized SpriteAtlas getInstance() {
+        if(instance == null) instance = new SpriteAtlas();
+        return instance;
+    }
+
+    /**
+     * Копіює спрайт у клітинку.
+     *
+     * @param g Посилання на графічний об’єкт для малювання.
+     * @param sprite Спрайт для малювання.
+     * @param x X координата лівого верхнього кута клітинки.
+     * @param y Y координата лівого верхнього кута клітинки.
+     */
+    public void draw(Graphics g, Sprite sprite, int x, int y) {
+        int sourceX = sprite.ordinal() * SIZE;
+        g.drawImage(image, x, y, x + SIZE, y + SIZE, sourceX, 0, sourceX + SIZE, SIZE, null);
+    }
+}
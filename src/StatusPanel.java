@@ -8,6 +8,8 @@ import java.awt.*;
  * Проста текстова панель для відображення верхнього та нижнього рядків тексту.
  * Деякі з них уже визначені в класі.
  * Він надає додаткові методи встановлення користувацьких значень для повідомлень.
+ * Коли текст змінюється, панель просить перемалювати лише свою смугу.
+ * Ширина кожного рядка вимірюється один раз після зміни тексту, а не при кожному малюванні.
  */
 public class StatusPanel extends Rectangle{
     /**
@@ -44,6 +46,14 @@ public class StatusPanel extends Rectangle{
      * Поточне повідомлення для відображення в нижньому рядку.
      */
     private String downLine;
+    /**
+     * Ширина верхнього рядка в пікселях або -1, якщо її ще не виміряно.
+     */
+    private int upLineWidth = -1;
+    /**
+     * Ширина нижнього рядка в пікселях або -1, якщо її ще не виміряно.
+     */
+    private int downLineWidth = -1;
 
     /**
      * Налаштовує панель стану, щоб вона була готова і встановлює початковий текст за замовчуванням.
@@ -61,8 +71,7 @@ public class StatusPanel extends Rectangle{
      * Скидає повідомлення до стандартних для розміщення корабля.
      */
     public void reset() {
-        upLine = placingShipUpLine;
-        downLine = placingShipDownLine;
+        setLines(placingShipUpLine, placingShipDownLine);
     }
 
     /**
@@ -71,8 +80,7 @@ public class StatusPanel extends Rectangle{
      * @param playerWin True, якщо гравець виграв, або false, якщо гравець програв.
      */
     public void showGameOver(boolean playerWin) {
-        upLine = (playerWin) ? gameOverLineWin : gameOverLineLost;
-        downLine = gameOverDownLine;
+        setLines((playerWin) ? gameOverLineWin : gameOverLineLost, gameOverDownLine);
     }
 
     /**
@@ -81,7 +89,7 @@ public class StatusPanel extends Rectangle{
      * @param message Повідомлення для відображення у верхньому рядку.
      */
     public void setUpLine(String message) {
-        upLine = message;
+        setLines(message, downLine);
     }
 
     /**
@@ -90,7 +98,22 @@ public class StatusPanel extends Rectangle{
      * @param message Повідомлення для відображення в нижньому рядку.
      */
     public void setDownLine(String message) {
-        downLine = message;
+        setLines(upLine, message);
+    }
+
+    /**
+     * Встановлює обидва рядки і перемальовує панель, якщо текст змінився.
+     *
+     * @param up Повідомлення для верхнього рядка.
+     * @param down Повідомлення для нижнього рядка.
+     */
+    private void setLines(String up, String down) {
+        if(up.equals(upLine) && down.equals(downLine)) return;
+        if(!up.equals(upLine)) upLineWidth = -1;
+        if(!down.equals(downLine)) downLineWidth = -1;
+        upLine = up;
+        downLine = down;
+        repaint();
     }
 
     /**
@@ -103,9 +126,9 @@ public class StatusPanel extends Rectangle{
         g.fillRect(startPoint.x, startPoint.y, width, height);
         g.setColor(Color.BLACK);
         g.setFont(font);
-        int strWidth = g.getFontMetrics().stringWidth(upLine);
-        g.drawString(upLine, startPoint.x+width/2-strWidth/2, startPoint.y+20);
-        strWidth = g.getFontMetrics().stringWidth(downLine);
-        g.drawString(downLine, startPoint.x+width/2-strWidth/2, startPoint.y+40);
+        if(upLineWidth < 0) upLineWidth = g.getFontMetrics().stringWidth(upLine);
+        if(downLineWidth < 0) downLineWidth = g.getFontMetrics().stringWidth(downLine);
+        g.drawString(upLine, startPoint.x+width/2-upLineWidth/2, startPoint.y+20);
+        g.drawString(downLine, startPoint.x+width/2-downLineWidth/2, startPoint.y+40);
     }
 }
\ No newline at end of file
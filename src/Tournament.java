@@ -0,0 +1,424 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас Tournament
+ * Пакетний запуск ігор ШІ проти ШІ без інтерфейсу. Для кожної пари учасників грає задану кількість ігор,
+ * розподіляючи їх між усіма ядрами через ForkJoinPool. Кожне завдання має власний GameEngine і власні ШІ,
+ * тож потоки ділять лише потокобезпечний кеш оцінок EvaluationCache.
+ */
+public class Tournament {
+    /**
+     * Кількість завдань на один потік, щоб вирівняти навантаження між ядрами.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+    /**
+     * Найбільша кількість оцінок у спільному кеші ШІ Експерт.
+     */
+    private static final int EVALUATION_CACHE_CAPACITY = 1 << 14;
+    /**
+     * Найбільша кількість пострілів у картинах, які кешує ШІ Експерт: далі картини майже не повторюються.
+     */
+    private static final int EVALUATION_CACHE_MAX_SHOTS = 4;
+
+    /**
+     * Учасник турніру: назва і спосіб створити ШІ для сітки суперника.
+     */
+    public static class Contender {
+        /**
+         * Назва учасника для звіту.
+         */
+        private final String name;
+        /**
+         * Створює новий ШІ за правилами гри сітки, яку він атакуватиме.
+         */
+        private final Function<GameRules, BattleshipAI> factory;
+
+        /**
+         * Створює учасника турніру.
+         *
+         * @param name Назва учасника для звіту.
+         * @param factory Створює новий ШІ за правилами гри сітки, яку він атакуватиме.
+         */
+        public Contender(String name, Function<GameRules, BattleshipAI> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        /**
+         * Отримує назву учасника.
+         *
+         * @return Назва учасника.
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Підсумок усіх ігор між двома учасниками.
+     */
+    public static class MatchupResult {
+        /**
+         * Перший учасник пари.
+         */
+        private final Contender first;
+        /**
+         * Другий учасник пари.
+         */
+        private final Contender second;
+        /**
+         * Кількість перемог першого учасника.
+         */
+        private final int firstWins;
+        /**
+         * Відсортована кількість пострілів переможця в кожній грі.
+         */
+        private final int[] shotsToWin;
+        /**
+         * Час гри всієї пари в секундах.
+         */
+        private final double seconds;
+
+        /**
+         * Створює підсумок пари.
+         *
+         * @param first Перший учасник пари.
+         * @param second Другий учасник пари.
+         * @param firstWins Кількість перемог першого учасника.
+         * @param shotsToWin Кількість пострілів переможця в кожній грі.
+         * @param seconds Час гри всієї пари в секундах.
+         */
+        public MatchupResult(Contender first, Contender second, int firstWins, int[] shotsToWin, double seconds) {
+            this.first = first;
+            this.second = second;
+            this.firstWins = firstWins;
+            this.shotsToWin = shotsToWin.clone();
+            Arrays.sort(this.shotsToWin);
+            this.seconds = seconds;
+        }
+
+        /**
+         * Отримує кількість зіграних ігор.
+         *
+         * @return Кількість ігор.
+         */
+        public int getGames() {
+            return shotsToWin.length;
+        }
+
+        /**
+         * Отримує частку перемог першого учасника.
+         *
+         * @return Значення від 0 до 1.
+         */
+        public double getFirstWinRate() {
+            return (double) firstWins / shotsToWin.length;
+        }
+
+        /**
+         * Отримує кількість ігор за секунду.
+         *
+         * @return Ігор за секунду.
+         */
+        public double getGamesPerSecond() {
+            return shotsToWin.length / seconds;
+        }
+
+        /**
+         * Отримує середню кількість пострілів переможця.
+         *
+         * @return Середнє значення пострілів до перемоги.
+         */
+        public double getMeanShotsToWin() {
+            long total = 0;
+            for(int shots : shotsToWin) {
+                total += shots;
+            }
+            return (double) total / shotsToWin.length;
+        }
+
+        /**
+         * Отримує перцентиль кількості пострілів переможця.
+         *
+         * @param percentile Перцентиль від 0 до 100, наприклад 50 для медіани.
+         * @return Кількість пострілів на вказаному перцентилі.
+         */
+        public int getShotsToWinPercentile(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * shotsToWin.length) - 1;
+            return shotsToWin[Math.max(0, Math.min(index, shotsToWin.length - 1))];
+        }
+
+        /**
+         * Отримує рядок звіту для пари.
+         *
+         * @return Рядок з перемогами, пострілами та швидкістю.
+         */
+        @Override
+        public String toString() {
+            return String.format("%-10s vs %-10s ігор %7d  перемоги %-10s %5.1f%%  постріли: середнє %5.1f медіана %3d p99 %3d  %9.0f ігор/с",
+                    first.name, second.name, getGames(), first.name, getFirstWinRate() * 100,
+                    getMeanShotsToWin(), getShotsToWinPercentile(50), getShotsToWinPercentile(99), getGamesPerSecond());
+        }
+    }
+
+    /**
+     * Результат одного завдання: кількість перемог першого учасника і постріли переможця в кожній грі.
+     */
+    private static class ChunkResult {
+        /**
+         * Кількість перемог першого учасника.
+         */
+        private int firstWins;
+        /**
+         * Постріли переможця в кожній грі завдання.
+         */
+        private int[] shotsToWin;
+    }
+
+    /**
+     * Правила, за якими граються всі ігри.
+     */
+    private final GameRules rules;
+    /**
+     * Пул потоків для паралельних ігор.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * Усі учасники турніру.
+     */
+    private final List<Contender> contenders;
+    /**
+     * Спосіб генерації розстановок флоту в іграх турніру.
+     */
+    private FleetGenerator.Mode fleetMode = FleetGenerator.Mode.FAST;
+    /**
+     * Кількість розстановок, для яких UNIFORM не встиг і використано FAST, в усіх іграх турніру.
+     */
+    private final LongAdder uniformFallbacks = new LongAdder();
+    /**
+     * Кеш оцінок, спільний для всіх ігор ШІ Експерт.
+     */
+    private final EvaluationCache expertCache = new EvaluationCache(EVALUATION_CACHE_CAPACITY, EVALUATION_CACHE_MAX_SHOTS);
+
+    /**
+     * Створює турнір, який використовує всі доступні ядра.
+     *
+     * @param rules Правила, за якими граються всі ігри.
+     */
+    public Tournament(GameRules rules) {
+        this(rules, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Створює турнір із заданою кількістю потоків.
+     *
+     * @param rules Правила, за якими граються всі ігри.
+     * @param parallelism Кількість потоків.
+     */
+    public Tournament(GameRules rules, int parallelism) {
+        this.rules = rules;
+        pool = new ForkJoinPool(parallelism);
+        contenders = new ArrayList<>();
+    }
+
+    /**
+     * Додає учасника до турніру.
+     *
+     * @param name Назва учасника для звіту.
+     * @param factory Створює новий ШІ за правилами гри сітки, яку він атакуватиме.
+     */
+    public void addContender(String name, Function<GameRules, BattleshipAI> factory) {
+        contenders.add(new Contender(name, factory));
+    }
+
+    /**
+     * Змінює спосіб генерації розстановок флоту. За замовчуванням FAST, бо на мільйонах ігор UNIFORM,
+     * як у грі, у сотні разів повільніший; розстановки FAST трохи відрізняються від тих, що бачить гравець.
+     *
+     * @param fleetMode Спосіб генерації розстановок.
+     */
+    public void setFleetMode(FleetGenerator.Mode fleetMode) {
+        this.fleetMode = fleetMode;
+    }
+
+    /**
+     * Додає ШІ, які доступні у вікні вибору складності гри. Усі ШІ Експерт ділять один кеш оцінок.
+     */
+    public void addStandardContenders() {
+        addContender("Легкий", SimpleAI::new);
+        addContender("Середній", rules -> new SmartAI(rules, false, false));
+        addContender("Важкий", rules -> new SmartAI(rules, true, true));
+        addContender("Експерт", rules -> {
+            BattleshipAI ai = new ProbabilityAI(rules);
+            ai.setEvaluationCache(expertCache);
+            return ai;
+        });
+    }
+
+    /**
+     * Отримує кількість розстановок, для яких UNIFORM не встиг і використано FAST, в усіх зіграних іграх.
+     *
+     * @return Кількість переходів до FAST.
+     */
+    public long getUniformFallbacks() {
+        return uniformFallbacks.sum();
+    }
+
+    /**
+     * Отримує кеш оцінок, спільний для всіх ігор ШІ Експерт.
+     *
+     * @return Кеш оцінок з лічильниками влучень і промахів.
+     */
+    public EvaluationCache getExpertCache() {
+        return expertCache;
+    }
+
+    /**
+     * Грає задану кількість ігор для кожної пари різних учасників.
+     *
+     * @param gamesPerMatchup Кількість ігор для кожної пари, більша за нуль.
+     * @return Підсумки всіх пар.
+     */
+    public List<MatchupResult> run(int gamesPerMatchup) {
+        checkGames(gamesPerMatchup);
+        List<MatchupResult> results = new ArrayList<>();
+        for(int i = 0; i < contenders.size(); i++) {
+            for(int j = i + 1; j < contenders.size(); j++) {
+                results.add(playMatchup(contenders.get(i), contenders.get(j), gamesPerMatchup));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Грає задану кількість ігор між двома учасниками, розподіляючи їх між потоками.
+     * Учасники по черзі ходять першими, щоб перевага першого ходу не впливала на результат.
+     *
+     * @param first Перший учасник.
+     * @param second Другий учасник.
+     * @param games Кількість ігор, більша за нуль.
+     * @return Підсумок пари.
+     */
+    public MatchupResult playMatchup(Contender first, Contender second, int games) {
+        checkGames(games);
+        int taskCount = Math.min(games, pool.getParallelism() * TASKS_PER_THREAD);
+        List<Callable<ChunkResult>> tasks = new ArrayList<>(taskCount);
+        for(int t = 0; t < taskCount; t++) {
+            int from = (int) ((long) games * t / taskCount);
+            int to = (int) ((long) games * (t + 1) / taskCount);
+            tasks.add(() -> playChunk(first, second, from, to));
+        }
+        long start = System.nanoTime();
+        int[] shotsToWin = new int[games];
+        int firstWins = 0;
+        int offset = 0;
+        for(Future<ChunkResult> future : pool.invokeAll(tasks)) {
+            ChunkResult chunk;
+            try {
+                chunk = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Турнір перервано", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Гра завершилася помилкою", e.getCause());
+            }
+            firstWins += chunk.firstWins;
+            System.arraycopy(chunk.shotsToWin, 0, shotsToWin, offset, chunk.shotsToWin.length);
+            offset += chunk.shotsToWin.length;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new MatchupResult(first, second, firstWins, shotsToWin, seconds);
+    }
+
+    /**
+     * Перевіряє, що кількість ігор додатна: без ігор частка перемог і перцентилі пострілів не визначені.
+     *
+     * @param games Кількість ігор.
+     */
+    private static void checkGames(int games) {
+        if(games <= 0) {
+            throw new IllegalArgumentException("Кількість ігор має бути додатною: " + games);
+        }
+    }
+
+    /**
+     * Грає ігри з номерами [from, to) в одному потоці з власними рушієм і ШІ.
+     *
+     * @param first Перший учасник.
+     * @param second Другий учасник.
+     * @param from Номер першої гри.
+     * @param to Номер після останньої гри.
+     * @return Перемоги першого учасника і постріли переможця.
+     */
+    private ChunkResult playChunk(Contender first, Contender second, int from, int to) {
+        GameEngine engine = new GameEngine(rules);
+        engine.getComputerGrid().setFleetMode(fleetMode);
+        engine.getPlayerGrid().setFleetMode(fleetMode);
+        BattleshipAI firstAttacker = first.factory.apply(rules);
+        BattleshipAI firstDefender = first.factory.apply(rules);
+        BattleshipAI secondAttacker = second.factory.apply(rules);
+        BattleshipAI secondDefender = second.factory.apply(rules);
+        ChunkResult result = new ChunkResult();
+        result.shotsToWin = new int[to - from];
+        for(int game = from; game < to; game++) {
+            boolean firstMovesFirst = game % 2 == 0;
+            BattleshipAI playerAI = firstMovesFirst ? firstAttacker : secondAttacker;
+            engine.setComputerAI(firstMovesFirst ? secondDefender : firstDefender);
+            engine.reset();
+            playerAI.reset();
+            boolean playerWon = engine.playOut(playerAI);
+            if(playerWon == firstMovesFirst) result.firstWins++;
+            result.shotsToWin[game - from] = playerWon ? engine.getPlayerShots() : engine.getComputerShots();
+        }
+        uniformFallbacks.add(engine.getComputerGrid().getUniformFallbacks() + engine.getPlayerGrid().getUniformFallbacks());
+        return result;
+    }
+
+    /**
+     * Зупиняє потоки турніру.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Запускає турнір стандартних ШІ за класичними правилами і друкує звіт.
+     *
+     * @param args Необов'язкові: кількість ігор на пару (за замовчуванням 10000), кількість потоків
+     *             і спосіб генерації розстановок FAST (за замовчуванням) або UNIFORM.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        checkGames(games);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        FleetGenerator.Mode fleetMode = args.length > 2 ? FleetGenerator.Mode.valueOf(args[2]) : FleetGenerator.Mode.FAST;
+        Tournament tournament = new Tournament(GameRules.CLASSIC, threads);
+        tournament.setFleetMode(fleetMode);
+        tournament.addStandardContenders();
+        System.out.println("Турнір: " + games + " ігор на пару, потоків: " + threads + ", розстановки: " + fleetMode);
+        long start = System.nanoTime();
+        int totalGames = 0;
+        for(MatchupResult result : tournament.run(games)) {
+            System.out.println(result);
+            totalGames += result.getGames();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Усього %d ігор за %.2f с, %.0f ігор/с%n", totalGames, seconds, totalGames / seconds);
+        System.out.println("Кеш оцінок Експерта: " + tournament.getExpertCache());
+        if(fleetMode == FleetGenerator.Mode.UNIFORM) {
+            System.out.println("Розстановок UNIFORM, замінених на FAST: " + tournament.getUniformFallbacks());
+        }
+        tournament.shutdown();
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас ZobristKeys
+ * Незмінна таблиця випадкових 64-бітних ключів Zobrist для кожної клітинки сітки і кожного видимого стану клітинки.
+ * Хеш стану сітки - XOR ключів усіх обстріляних клітинок, тож постріл оновлює його за O(1),
+ * а однакові стани мають однаковий хеш незалежно від порядку пострілів.
+ * Ключі генеруються з фіксованого зерна, тож хеші однакові в усіх запусках програми
+ * і придатні для запису в архіви партій. Таблиця створюється один раз на кількість клітинок і спільна для всіх потоків.
+ */
+public final class ZobristKeys {
+    /**
+     * Видимий суперникові стан обстріляної клітинки.
+     * MISS: промах.
+     * HIT: влучення в корабель, що ще на плаву.
+     * SUNK: палуба знищеного корабля.
+     */
+    public enum CellState { MISS, HIT, SUNK }
+
+    /**
+     * Зерно генератора ключів.
+     */
+    private static final long SEED = 0x5EABA771E5A1L;
+    /**
+     * Таблиці, що вже створені, за кількістю клітинок.
+     */
+    private static final Map<Integer, ZobristKeys> TABLES = new ConcurrentHashMap<>();
+    /**
+     * Усі стани клітинки в порядку їхніх номерів.
+     */
+    private static final CellState[] STATES = CellState.values();
+    /**
+     * Ключ стану s клітинки c на позиції c * STATES.length + s.
+     */
+    private final long[] keys;
+
+    /**
+     * Генерує ключі для сітки із заданою кількістю клітинок.
+     *
+     * @param cellCount Кількість клітинок сітки.
+     */
+    private ZobristKeys(int cellCount) {
+        keys = new long[cellCount * STATES.length];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for(int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Отримує спільну таблицю ключів для сітки із заданою кількістю клітинок.
+     *
+     * @param cellCount Кількість клітинок сітки.
+     * @return Таблиця ключів, одна на кількість клітинок.
+     */
+    public static ZobristKeys forCellCount(int cellCount) {
+        if(cellCount < 1) {
+            throw new IllegalArgumentException("Кількість клітинок має бути додатною: " + cellCount);
+        }
+        return TABLES.computeIfAbsent(cellCount, ZobristKeys::new);
+    }
+
+    /**
+     * Отримує спільну таблицю ключів для сітки за правилами гри.
+     *
+     * @param rules Правила гри з розміром сітки.
+     * @return Таблиця ключів, одна на кількість клітинок.
+     */
+    public static ZobristKeys forRules(GameRules rules) {
+        return forCellCount(rules.getCellCount());
+    }
+
+    /**
+     * Отримує ключ стану клітинки.
+     *
+     * @param cell Індекс клітинки.
+     * @param state Видимий стан клітинки.
+     * @return 64-бітний ключ.
+     */
+    public long key(int cell, CellState state) {
+        return keys[cell * STATES.length + state.ordinal()];
+    }
+}
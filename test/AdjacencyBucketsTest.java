@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас AdjacencyBucketsTest
+ * Перевіряє групування необстріляних клітинок за кількістю необстріляних сусідів.
+ */
+public class AdjacencyBucketsTest {
+    /**
+     * Сітка 3x3, на якій лише центр має чотирьох сусідів.
+     */
+    private static final GameRules SMALL = new GameRules(3, 3, new int[] {1}, false);
+
+    /**
+     * Постріл у клітинку переносить її сусідів на групу нижче.
+     */
+    @Test
+    public void removeDemotesNeighbours() {
+        AdjacencyBuckets buckets = new AdjacencyBuckets(SMALL);
+        Random random = new Random(1);
+        assertEquals(4, buckets.getMaxNeighbours());
+        assertEquals(4, buckets.pickMostOpen(random));
+        buckets.remove(4);
+        assertEquals(2, buckets.getMaxNeighbours());
+        buckets.remove(4);
+        assertEquals(2, buckets.getMaxNeighbours());
+        buckets.remove(1);
+        buckets.remove(3);
+        buckets.remove(5);
+        buckets.remove(7);
+        assertEquals(0, buckets.getMaxNeighbours());
+        int corner = buckets.pickMostOpen(random);
+        assertTrue(corner == 0 || corner == 2 || corner == 6 || corner == 8);
+    }
+
+    /**
+     * Коли всі клітинки обстріляні, вибору немає, а скидання повертає всі клітинки.
+     */
+    @Test
+    public void emptyAndReset() {
+        AdjacencyBuckets buckets = new AdjacencyBuckets(SMALL);
+        for(int cell = 0; cell < 9; cell++) {
+            buckets.remove(cell);
+        }
+        assertEquals(-1, buckets.getMaxNeighbours());
+        assertEquals(-1, buckets.pickMostOpen(new Random(1)));
+        buckets.reset();
+        assertEquals(4, buckets.getMaxNeighbours());
+    }
+
+    /**
+     * На класичній сітці вибрана клітинка завжди має найбільше необстріляних сусідів.
+     */
+    @Test
+    public void pickMostOpenMatchesBruteForce() {
+        AdjacencyBuckets buckets = new AdjacencyBuckets(GameRules.CLASSIC);
+        boolean[] shot = new boolean[100];
+        Random random = new Random(9);
+        for(int turn = 0; turn < 100; turn++) {
+            int best = -1;
+            for(int cell = 0; cell < 100; cell++) {
+                if(!shot[cell]) best = Math.max(best, openNeighbours(shot, cell));
+            }
+            assertEquals(best, buckets.getMaxNeighbours());
+            int cell = buckets.pickMostOpen(random);
+            assertFalse(shot[cell]);
+            assertEquals(best, openNeighbours(shot, cell));
+            shot[cell] = true;
+            buckets.remove(cell);
+        }
+        assertEquals(-1, buckets.getMaxNeighbours());
+    }
+
+    /**
+     * Рахує необстріляних сусідів клітинки сітки 10x10 зліва, справа, зверху і знизу.
+     *
+     * @param shot Обстріляні клітинки.
+     * @param cell Індекс клітинки.
+     * @return Кількість необстріляних сусідів.
+     */
+    private static int openNeighbours(boolean[] shot, int cell) {
+        int x = cell % 10;
+        int y = cell / 10;
+        int count = 0;
+        if(x > 0 && !shot[cell - 1]) count++;
+        if(x < 9 && !shot[cell + 1]) count++;
+        if(y > 0 && !shot[cell - 10]) count++;
+        if(y < 9 && !shot[cell + 10]) count++;
+        return count;
+    }
+}
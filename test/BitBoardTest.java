@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас BitBoardTest
+ * Перевіряє бітовий шар клітинок, особливо маски на межі слів: клітинки 63 і 64 та останню клітинку шару.
+ */
+public class BitBoardTest {
+    /**
+     * Клітинки 63 і 64 лежать у різних словах, а остання клітинка сітки 10x10 - у старших бітах другого слова.
+     */
+    @Test
+    public void setGetAndClearAtWordBoundaries() {
+        BitBoard board = new BitBoard(100);
+        assertEquals(2, board.wordCount());
+        board.set(63);
+        board.set(64);
+        board.set(99);
+        assertEquals(1L << 63, board.getWord(0));
+        assertEquals(1L | 1L << 35, board.getWord(1));
+        assertTrue(board.get(63));
+        assertTrue(board.get(64));
+        assertTrue(board.get(99));
+        assertFalse(board.get(62));
+        assertFalse(board.get(65));
+        assertFalse(board.get(98));
+        assertEquals(3, board.cardinality());
+        board.clear(64);
+        assertTrue(board.get(63));
+        assertFalse(board.get(64));
+        assertEquals(1L << 35, board.getWord(1));
+    }
+
+    /**
+     * Діапазон через межу слів встановлює рівно свої біти.
+     */
+    @Test
+    public void setRangeAcrossWordBoundary() {
+        BitBoard board = new BitBoard(100);
+        board.setRange(60, 70);
+        assertEquals(10, board.cardinality());
+        assertFalse(board.get(59));
+        assertTrue(board.get(60));
+        assertTrue(board.get(63));
+        assertTrue(board.get(64));
+        assertTrue(board.get(69));
+        assertFalse(board.get(70));
+    }
+
+    /**
+     * Діапазон до кінця шару, що закінчується рівно на межі слова або посередині слова.
+     */
+    @Test
+    public void setRangeToLastCell() {
+        BitBoard full = new BitBoard(128);
+        full.setRange(0, 128);
+        assertEquals(128, full.cardinality());
+        assertEquals(-1L, full.getWord(1));
+        BitBoard partial = new BitBoard(100);
+        partial.setRange(64, 100);
+        assertEquals(36, partial.cardinality());
+        assertEquals(0, partial.getWord(0));
+        assertTrue(partial.get(99));
+        partial.setRange(5, 5);
+        assertEquals(36, partial.cardinality());
+    }
+
+    /**
+     * Перебір встановлених клітинок проходить через межу слова і зупиняється на останній клітинці.
+     */
+    @Test
+    public void nextSetBitWalksAcrossWords() {
+        BitBoard board = new BitBoard(100);
+        board.set(0);
+        board.set(63);
+        board.set(64);
+        board.set(99);
+        assertEquals(0, board.nextSetBit(0));
+        assertEquals(63, board.nextSetBit(1));
+        assertEquals(64, board.nextSetBit(64));
+        assertEquals(99, board.nextSetBit(65));
+        assertEquals(-1, board.nextSetBit(100));
+        board.clear(99);
+        assertEquals(-1, board.nextSetBit(65));
+    }
+
+    /**
+     * Операції над двома шарами.
+     */
+    @Test
+    public void setOperations() {
+        BitBoard a = new BitBoard(100);
+        BitBoard b = new BitBoard(100);
+        a.set(63);
+        a.set(64);
+        b.set(64);
+        assertTrue(a.intersects(b));
+        assertTrue(a.containsAll(b));
+        assertFalse(b.containsAll(a));
+        b.set(99);
+        a.or(b);
+        assertEquals(3, a.cardinality());
+        a.andNot(b);
+        assertEquals(1, a.cardinality());
+        assertTrue(a.get(63));
+        assertFalse(a.intersects(b));
+        BitBoard copy = new BitBoard(a);
+        a.clearAll();
+        assertTrue(a.isEmpty());
+        assertTrue(copy.get(63));
+        a.copyFrom(b);
+        assertTrue(a.get(64));
+        assertTrue(a.get(99));
+        assertEquals(2, a.cardinality());
+    }
+}
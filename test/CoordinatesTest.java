@@ -0,0 +1,52 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас CoordinatesTest
+ * Перевіряє кеш позицій Coordinates і перетворення між позиціями та індексами клітинок.
+ */
+public class CoordinatesTest {
+    /**
+     * Позиції в межах кешу повертаються тим самим об'єктом.
+     */
+    @Test
+    public void cachedPositionsAreShared() {
+        assertSame(Coordinates.of(3, 7), Coordinates.of(3, 7));
+        assertSame(Coordinates.of(127, 127), Coordinates.of(127, 127));
+        assertSame(Coordinates.ZERO, Coordinates.of(0, 0));
+        assertSame(Coordinates.RIGHT, Coordinates.ZERO.plus(Coordinates.RIGHT));
+    }
+
+    /**
+     * Позиції поза кешем створюються заново, але рівні між собою.
+     */
+    @Test
+    public void uncachedPositionsAreEqual() {
+        Coordinates up = Coordinates.of(0, -1);
+        assertNotSame(up, Coordinates.UP);
+        assertEquals(Coordinates.UP, up);
+        assertEquals(Coordinates.UP.hashCode(), up.hashCode());
+        Coordinates far = Coordinates.of(128, 5);
+        assertNotSame(far, Coordinates.of(128, 5));
+        assertEquals(Coordinates.of(128, 5), far);
+        assertNotEquals(Coordinates.of(5, 128), far);
+    }
+
+    /**
+     * Позиція клітинки та індекс клітинки позиції взаємно обернені.
+     */
+    @Test
+    public void cellRoundTrip() {
+        for(int cell = 0; cell < 100; cell++) {
+            Coordinates pos = Coordinates.ofCell(cell, 10);
+            assertEquals(cell % 10, pos.x);
+            assertEquals(cell / 10, pos.y);
+            assertEquals(cell, pos.toCell(10));
+        }
+        assertEquals(Coordinates.of(4, 3), Coordinates.ofCell(64, 20));
+    }
+}
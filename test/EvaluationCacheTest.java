@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас EvaluationCacheTest
+ * Перевіряє витіснення найдавніше використаних оцінок EvaluationCache і лічильники влучень та промахів.
+ * Хеші з однаковими старшими бітами і нульовий підпис флоту потрапляють в один сегмент.
+ */
+public class EvaluationCacheTest {
+    /**
+     * Переповнений сегмент видаляє оцінку, до якої найдовше не зверталися.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        EvaluationCache cache = new EvaluationCache(32);
+        cache.put(1, 0, new int[] {1});
+        cache.put(2, 0, new int[] {2});
+        assertArrayEquals(new int[] {1}, cache.get(1, 0));
+        cache.put(3, 0, new int[] {3});
+        assertEquals(2, cache.size());
+        assertNull(cache.get(2, 0));
+        assertArrayEquals(new int[] {1}, cache.get(1, 0));
+        assertArrayEquals(new int[] {3}, cache.get(3, 0));
+        cache.put(1L << 62, 0, new int[] {4});
+        assertEquals(3, cache.size());
+    }
+
+    /**
+     * Лічильники рахують кожне звернення, а clear скидає і записи, і лічильники.
+     */
+    @Test
+    public void countsHitsAndMisses() {
+        EvaluationCache cache = new EvaluationCache(64);
+        assertEquals(0, cache.getHitRate());
+        assertNull(cache.get(7, 1));
+        cache.put(7, 1, new int[] {7});
+        assertNotNull(cache.get(7, 1));
+        assertNotNull(cache.get(7, 1));
+        assertNull(cache.get(7, 2));
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertNull(cache.get(7, 1));
+    }
+
+    /**
+     * Кеш зберігає копію оцінки, тож подальші зміни масиву викликача її не псують.
+     */
+    @Test
+    public void putStoresCopy() {
+        EvaluationCache cache = new EvaluationCache(16);
+        int[] evaluation = {5, 6};
+        cache.put(9, 0, evaluation);
+        evaluation[0] = 0;
+        assertArrayEquals(new int[] {5, 6}, cache.get(9, 0));
+    }
+
+    /**
+     * Місткість менша за кількість сегментів і від'ємна межа пострілів відхиляються.
+     */
+    @Test
+    public void invalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(15));
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(16, -1));
+        assertEquals(20, new EvaluationCache(16, 20).getMaxShots());
+    }
+}
@@ -0,0 +1,174 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас FleetGeneratorTest
+ * Перевіряє, що FleetGenerator розставляє весь флот без перетинів, а якщо кораблі не торкаються - без дотиків,
+ * і що неможливий флот відхиляється з поясненням.
+ */
+public class FleetGeneratorTest {
+    /**
+     * Кількість розстановок для перевірки кожного способу генерації.
+     */
+    private static final int LAYOUTS = 200;
+
+    /**
+     * Класичний флот, кораблі не торкаються.
+     */
+    @Test
+    public void classicLayoutsAreValid() {
+        for(FleetGenerator.Mode mode : FleetGenerator.Mode.values()) {
+            checkLayouts(GameRules.CLASSIC, mode);
+        }
+    }
+
+    /**
+     * Щільний флот, кораблі можуть торкатися.
+     */
+    @Test
+    public void touchingLayoutsAreValid() {
+        GameRules rules = new GameRules(6, 6, new int[] {4, 4, 3, 3, 2, 2, 1, 1}, true);
+        for(FleetGenerator.Mode mode : FleetGenerator.Mode.values()) {
+            checkLayouts(rules, mode);
+        }
+    }
+
+    /**
+     * Однакове початкове значення дає однакові розстановки.
+     */
+    @Test
+    public void sameSeedGivesSameLayouts() {
+        int fleetSize = GameRules.CLASSIC.getFleetSize();
+        int[] first = new int[fleetSize * 10];
+        int[] second = new int[fleetSize * 10];
+        new FleetGenerator(GameRules.CLASSIC, FleetGenerator.Mode.FAST, 42).generateBulk(first, 0, 10);
+        new FleetGenerator(GameRules.CLASSIC, FleetGenerator.Mode.FAST, 42).generateBulk(second, 0, 10);
+        assertArrayEquals(first, second);
+    }
+
+    /**
+     * Флот, що не проходить за площею, і флот, для якого повний перебір нічого не знайшов.
+     */
+    @Test
+    public void impossibleFleetIsRejected() {
+        FleetGenerator tooBig = new FleetGenerator(new GameRules(3, 3, new int[] {3, 3, 3}, false), FleetGenerator.Mode.FAST, 1);
+        IllegalStateException area = assertThrows(IllegalStateException.class, () -> tooBig.generate(new int[3], 0));
+        assertTrue(area.getMessage().contains("не вміщується"));
+        FleetGenerator crowded = new FleetGenerator(new GameRules(2, 2, new int[] {1, 1}, false), FleetGenerator.Mode.UNIFORM, 1, 10);
+        IllegalStateException search = assertThrows(IllegalStateException.class, () -> crowded.generate(new int[2], 0));
+        assertTrue(search.getMessage().contains("не вміщується"));
+        assertEquals(1, crowded.getUniformFallbacks());
+        assertThrows(IllegalArgumentException.class,
+                () -> new FleetGenerator(GameRules.CLASSIC, FleetGenerator.Mode.UNIFORM, 1, 0));
+    }
+
+    /**
+     * Якщо UNIFORM не прийняв жодної розстановки за повний бюджет, наступні розстановки одразу будуються FAST.
+     */
+    @Test
+    public void hopelessUniformFallsBackAtOnce() {
+        GameRules dense = new GameRules(8, 8, GameRules.CLASSIC.getFleet(), false);
+        FleetGenerator generator = new FleetGenerator(dense, FleetGenerator.Mode.UNIFORM, 3, 1000);
+        int[] layouts = new int[dense.getFleetSize() * 50];
+        generator.generateBulk(layouts, 0, 50);
+        assertEquals(50, generator.getUniformFallbacks());
+        for(int i = 0; i < 50; i++) {
+            checkLayout(generator, layouts, i * dense.getFleetSize());
+        }
+    }
+
+    /**
+     * Бюджет спроб UNIFORM після калібрування з запасом покриває класичний флот.
+     */
+    @Test
+    public void calibratedUniformBudgetRarelyFallsBack() {
+        FleetGenerator generator = new FleetGenerator(GameRules.CLASSIC, FleetGenerator.Mode.UNIFORM, 5);
+        generator.generateBulk(new int[GameRules.CLASSIC.getFleetSize() * 300], 0, 300);
+        assertEquals(0, generator.getUniformFallbacks());
+    }
+
+    /**
+     * UNIFORM видає кожну допустиму розстановку двох кораблів на сітці 4x4 з однаковою частотою:
+     * статистика хі-квадрат не перевищує кількість ступенів свободи більше ніж на п'ять стандартних відхилень.
+     */
+    @Test
+    public void uniformModeIsUniform() {
+        GameRules rules = new GameRules(4, 4, new int[] {2, 1}, false);
+        FleetGenerator generator = new FleetGenerator(rules, FleetGenerator.Mode.UNIFORM, 13);
+        PlacementTable.Placements two = generator.getPlacements(0);
+        PlacementTable.Placements one = generator.getPlacements(1);
+        boolean[] valid = new boolean[two.count() * one.count()];
+        int validCount = 0;
+        BitBoard halo = new BitBoard(rules.getCellCount());
+        for(int a = 0; a < two.count(); a++) {
+            halo.clearAll();
+            two.addHalo(a, halo);
+            for(int b = 0; b < one.count(); b++) {
+                if(!one.footprintIntersects(b, halo)) {
+                    valid[a * one.count() + b] = true;
+                    validCount++;
+                }
+            }
+        }
+        int samples = validCount * 500;
+        int[] layouts = new int[samples * 2];
+        generator.generateBulk(layouts, 0, samples);
+        int[] counts = new int[valid.length];
+        for(int i = 0; i < samples; i++) {
+            int key = layouts[2 * i] * one.count() + layouts[2 * i + 1];
+            assertTrue(valid[key]);
+            counts[key]++;
+        }
+        double expected = (double) samples / validCount;
+        double chiSquare = 0;
+        for(int key = 0; key < valid.length; key++) {
+            if(!valid[key]) continue;
+            chiSquare += (counts[key] - expected) * (counts[key] - expected) / expected;
+        }
+        int degrees = validCount - 1;
+        assertTrue(chiSquare < degrees + 5 * Math.sqrt(2.0 * degrees), "хі-квадрат " + chiSquare + " при " + degrees);
+        assertEquals(0, generator.getUniformFallbacks());
+    }
+
+    /**
+     * Генерує розстановки підряд у спільний буфер і перевіряє кожну.
+     *
+     * @param rules Правила гри.
+     * @param mode Спосіб генерації.
+     */
+    private static void checkLayouts(GameRules rules, FleetGenerator.Mode mode) {
+        FleetGenerator generator = new FleetGenerator(rules, mode, 7);
+        int fleetSize = rules.getFleetSize();
+        int[] layouts = new int[fleetSize * LAYOUTS + 3];
+        generator.generateBulk(layouts, 3, LAYOUTS);
+        for(int i = 0; i < LAYOUTS; i++) {
+            checkLayout(generator, layouts, 3 + i * fleetSize);
+        }
+    }
+
+    /**
+     * Перевіряє, що кораблі розстановки не перетинаються, а якщо правила не дозволяють - і не торкаються.
+     *
+     * @param generator Генератор, що створив розстановку.
+     * @param layouts Буфер розстановок.
+     * @param offset Індекс початку розстановки.
+     */
+    private static void checkLayout(FleetGenerator generator, int[] layouts, int offset) {
+        GameRules rules = generator.getRules();
+        BitBoard ships = new BitBoard(rules.getCellCount());
+        BitBoard halos = new BitBoard(rules.getCellCount());
+        for(int i = 0; i < rules.getFleetSize(); i++) {
+            PlacementTable.Placements table = generator.getPlacements(i);
+            int placement = layouts[offset + i];
+            assertTrue(placement >= 0 && placement < table.count());
+            assertFalse(table.footprintIntersects(placement, rules.shipsMayTouch() ? ships : halos));
+            table.addFootprint(placement, ships);
+            table.addHalo(placement, halos);
+        }
+        assertEquals(rules.getTotalDecks(), ships.cardinality());
+    }
+}
@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас FrameStatsTest
+ * Перевіряє перцентилі часу кадрів і кільцевий буфер FrameStats.
+ */
+public class FrameStatsTest {
+    /**
+     * Без кадрів перцентилі дорівнюють нулю.
+     */
+    @Test
+    public void emptyStatsReportZero() {
+        FrameStats stats = new FrameStats(8);
+        assertEquals(0, stats.getPercentileMillis(50));
+        assertEquals(0, stats.getFrameCount());
+    }
+
+    /**
+     * Перцентилі 100 кадрів тривалістю від 1 до 100 мс, записаних у зворотному порядку.
+     */
+    @Test
+    public void percentilesOfKnownFrames() {
+        FrameStats stats = new FrameStats(128);
+        for(int ms = 100; ms >= 1; ms--) {
+            stats.record(ms * 1_000_000L);
+        }
+        assertEquals(50, stats.getPercentileMillis(50));
+        assertEquals(99, stats.getPercentileMillis(99));
+        assertEquals(100, stats.getPercentileMillis(100));
+        assertEquals(1, stats.getPercentileMillis(0));
+        assertEquals(100, stats.getFrameCount());
+    }
+
+    /**
+     * Кільцевий буфер тримає лише останні кадри, а лічильник рахує всі.
+     */
+    @Test
+    public void ringKeepsLatestFrames() {
+        FrameStats stats = new FrameStats(4);
+        for(int ms = 1; ms <= 6; ms++) {
+            stats.record(ms * 1_000_000L);
+        }
+        assertEquals(3, stats.getPercentileMillis(0));
+        assertEquals(6, stats.getPercentileMillis(100));
+        assertEquals(6, stats.getFrameCount());
+        stats.reset();
+        assertEquals(0, stats.getPercentileMillis(50));
+        assertEquals(0, stats.getFrameCount());
+        stats.record(2_500_000L);
+        assertEquals(2.5, stats.getPercentileMillis(99));
+    }
+
+    /**
+     * Недодатна кількість кадрів відхиляється.
+     */
+    @Test
+    public void invalidCapacityIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new FrameStats(0));
+    }
+}
@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас MovePoolTest
+ * Перевіряє видалення і випадковий вибір клітинок MovePool.
+ */
+public class MovePoolTest {
+    /**
+     * Видалена клітинка зникає з набору, а решта залишається в щільній частині масиву.
+     */
+    @Test
+    public void removeKeepsRemainingCells() {
+        MovePool pool = new MovePool(100);
+        assertEquals(100, pool.size());
+        assertTrue(pool.remove(63));
+        assertTrue(pool.remove(0));
+        assertTrue(pool.remove(99));
+        assertFalse(pool.remove(63));
+        assertEquals(97, pool.size());
+        assertFalse(pool.contains(63));
+        boolean[] seen = new boolean[100];
+        for(int i = 0; i < pool.size(); i++) {
+            int cell = pool.get(i);
+            assertFalse(seen[cell]);
+            assertTrue(pool.contains(cell));
+            seen[cell] = true;
+        }
+        assertFalse(seen[0] || seen[63] || seen[99]);
+        pool.reset();
+        assertEquals(100, pool.size());
+        assertTrue(pool.contains(63));
+    }
+
+    /**
+     * Випадковий вибір повертає кожну клітинку рівно один раз, доки набір не спорожніє.
+     */
+    @Test
+    public void removeRandomDrainsEveryCellOnce() {
+        MovePool pool = new MovePool(100);
+        pool.remove(50);
+        Random random = new Random(3);
+        boolean[] seen = new boolean[100];
+        while(!pool.isEmpty()) {
+            int cell = pool.removeRandom(random);
+            assertNotEquals(50, cell);
+            assertFalse(seen[cell]);
+            assertFalse(pool.contains(cell));
+            seen[cell] = true;
+        }
+        for(int cell = 0; cell < 100; cell++) {
+            assertEquals(cell != 50, seen[cell]);
+        }
+    }
+
+    /**
+     * Перемішування не змінює набору, а removeLast бере останню клітинку.
+     */
+    @Test
+    public void shuffleAndRemoveLast() {
+        MovePool pool = new MovePool(10);
+        pool.shuffle(new Random(5));
+        int last = pool.get(pool.size() - 1);
+        assertEquals(last, pool.removeLast());
+        assertFalse(pool.contains(last));
+        assertEquals(9, pool.size());
+        for(int cell = 0; cell < 10; cell++) {
+            assertEquals(cell != last, pool.contains(cell));
+        }
+    }
+}
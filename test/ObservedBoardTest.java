@@ -0,0 +1,191 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас ObservedBoardTest
+ * Перевіряє, які клітинки ObservedBoard вважає порожніми після промахів, влучень і знищень,
+ * зокрема неоднозначні знищення, коли кораблі можуть торкатися, і узгодженість хешу Zobrist.
+ */
+public class ObservedBoardTest {
+    /**
+     * Правила, за якими кораблі можуть торкатися.
+     */
+    private static final GameRules TOUCHING = new GameRules(10, 10, new int[] {2, 2, 1}, true);
+
+    /**
+     * Промах закриває лише свою клітинку, а влучення без дотиків - ще й діагональних сусідів.
+     */
+    @Test
+    public void missAndHitBlockCells() {
+        ObservedBoard board = new ObservedBoard(GameRules.CLASSIC);
+        board.recordMiss(0);
+        assertTrue(board.isBlocked(0));
+        assertEquals(1, board.getBlocked().cardinality());
+        board.recordHit(55);
+        assertTrue(board.isOpenHit(55));
+        assertFalse(board.isBlocked(55));
+        assertTrue(board.isBlocked(44));
+        assertTrue(board.isBlocked(46));
+        assertTrue(board.isBlocked(64));
+        assertTrue(board.isBlocked(66));
+        assertFalse(board.isBlocked(54));
+        assertEquals(2, board.getShotCount());
+
+        ObservedBoard touching = new ObservedBoard(TOUCHING);
+        touching.recordHit(55);
+        assertTrue(touching.getBlocked().isEmpty());
+    }
+
+    /**
+     * Знищення на єдиній лінії влучень закриває корабель разом з ореолом.
+     */
+    @Test
+    public void unambiguousSinkBlocksHalo() {
+        ObservedBoard board = new ObservedBoard(GameRules.CLASSIC);
+        board.recordHit(63);
+        board.recordHit(64);
+        board.recordSunkAt(64, 2);
+        assertFalse(board.hasOpenHits());
+        assertEquals(63, board.getLastSunkStart());
+        assertEquals(1, board.getLastSunkStep());
+        assertEquals(2, board.getLastSunkCells());
+        assertEquals(12, board.getBlocked().cardinality());
+        assertTrue(board.isBlocked(52));
+        assertTrue(board.isBlocked(75));
+        assertEquals(2, board.getRemaining(2));
+        assertEquals(9, board.getRemainingShips());
+    }
+
+    /**
+     * Двопалубний корабель знищено посередині трьох влучень у рядку: він лежить або ліворуч, або праворуч,
+     * тож закривається лише спільна клітинка.
+     */
+    @Test
+    public void ambiguousLineClosesOnlySharedCells() {
+        ObservedBoard board = new ObservedBoard(TOUCHING);
+        board.recordHit(board.cellIndex(1, 1));
+        board.recordHit(board.cellIndex(2, 1));
+        board.recordHit(board.cellIndex(3, 1));
+        board.recordSunkAt(board.cellIndex(2, 1), 2);
+        assertTrue(board.isOpenHit(board.cellIndex(1, 1)));
+        assertFalse(board.isOpenHit(board.cellIndex(2, 1)));
+        assertTrue(board.isOpenHit(board.cellIndex(3, 1)));
+        assertTrue(board.isBlocked(board.cellIndex(2, 1)));
+        assertEquals(board.cellIndex(2, 1), board.getLastSunkStart());
+        assertEquals(1, board.getLastSunkCells());
+        assertEquals(1, board.getRemaining(2));
+        assertEquals(2, board.getRemainingShips());
+    }
+
+    /**
+     * Три влучення в рядку, знищення на краю: корабель може лежати лише праворуч від краю лінії.
+     */
+    @Test
+    public void sinkAtLineEndIsUnambiguous() {
+        ObservedBoard board = new ObservedBoard(TOUCHING);
+        board.recordHit(board.cellIndex(1, 1));
+        board.recordHit(board.cellIndex(2, 1));
+        board.recordHit(board.cellIndex(3, 1));
+        board.recordSunkAt(board.cellIndex(3, 1), 2);
+        assertTrue(board.isOpenHit(board.cellIndex(1, 1)));
+        assertFalse(board.isOpenHit(board.cellIndex(2, 1)));
+        assertFalse(board.isOpenHit(board.cellIndex(3, 1)));
+        assertEquals(2, board.getLastSunkCells());
+    }
+
+    /**
+     * Корабель може лежати і в рядку, і в стовпці через клітинку пострілу: закривається лише вона.
+     */
+    @Test
+    public void crossAmbiguityClosesOnlyShotCell() {
+        ObservedBoard board = new ObservedBoard(TOUCHING);
+        board.recordHit(board.cellIndex(1, 1));
+        board.recordHit(board.cellIndex(2, 2));
+        board.recordHit(board.cellIndex(2, 1));
+        board.recordSunkAt(board.cellIndex(2, 1), 2);
+        assertTrue(board.isOpenHit(board.cellIndex(1, 1)));
+        assertTrue(board.isOpenHit(board.cellIndex(2, 2)));
+        assertFalse(board.isOpenHit(board.cellIndex(2, 1)));
+        assertEquals(board.cellIndex(2, 1), board.getLastSunkStart());
+        assertEquals(1, board.getLastSunkCells());
+    }
+
+    /**
+     * Хеш не залежить від порядку пострілів, а знищений корабель не відрізняється від промахів у тих самих клітинках.
+     */
+    @Test
+    public void hashDependsOnlyOnPicture() {
+        ObservedBoard first = new ObservedBoard(GameRules.CLASSIC);
+        first.recordMiss(0);
+        first.recordHit(64);
+        first.recordMiss(99);
+        ObservedBoard second = new ObservedBoard(GameRules.CLASSIC);
+        second.recordMiss(99);
+        second.recordHit(64);
+        second.recordMiss(0);
+        assertEquals(first.getStateHash(), second.getStateHash());
+        assertNotEquals(0, first.getStateHash());
+
+        ObservedBoard sunk = new ObservedBoard(TOUCHING);
+        sunk.recordHit(63);
+        sunk.recordSunkAt(63, 1);
+        ObservedBoard missed = new ObservedBoard(TOUCHING);
+        missed.recordMiss(63);
+        assertEquals(missed.getStateHash(), sunk.getStateHash());
+        assertNotEquals(missed.getFleetSignature(), sunk.getFleetSignature());
+
+        first.reset();
+        assertEquals(0, first.getStateHash());
+        assertEquals(0, first.getShotCount());
+    }
+
+    /**
+     * Хеш, що оновлюється після кожного пострілу справжньої гри, дорівнює хешу, порахованому заново з шарів.
+     */
+    @Test
+    public void incrementalHashMatchesRecomputation() {
+        for(GameRules rules : new GameRules[] {GameRules.CLASSIC, TOUCHING}) {
+            Random random = new Random(11);
+            GameGrid grid = new GameGrid(rules);
+            grid.makeShips();
+            ObservedBoard board = new ObservedBoard(rules);
+            MovePool moves = new MovePool(rules.getCellCount());
+            while(!grid.allShipsDestroyed()) {
+                int cell = moves.removeRandom(random);
+                GameGrid.ShotResult result = grid.markCell(cell);
+                long outcome = ShotOutcome.of(grid, cell, result);
+                board.record(cell, result, ShotOutcome.sunkLength(outcome));
+                assertEquals(recomputeHash(board), board.getStateHash());
+                board.record(cell, grid.markCell(cell), 0);
+                assertEquals(recomputeHash(board), board.getStateHash());
+            }
+            assertEquals(0, board.getRemainingShips());
+        }
+    }
+
+    /**
+     * Рахує хеш картини заново з шарів порожніх клітинок і відкритих влучень.
+     *
+     * @param board Картина сітки.
+     * @return Хеш Zobrist картини.
+     */
+    private static long recomputeHash(ObservedBoard board) {
+        ZobristKeys keys = ZobristKeys.forRules(board.getRules());
+        long hash = 0;
+        BitBoard blocked = board.getBlocked();
+        for(int cell = blocked.nextSetBit(0); cell >= 0; cell = blocked.nextSetBit(cell + 1)) {
+            hash ^= keys.key(cell, ZobristKeys.CellState.MISS);
+        }
+        BitBoard openHits = board.getOpenHits();
+        for(int cell = openHits.nextSetBit(0); cell >= 0; cell = openHits.nextSetBit(cell + 1)) {
+            hash ^= keys.key(cell, ZobristKeys.CellState.HIT);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас PlacementTableTest
+ * Перевіряє нумерацію і маски розміщень PlacementTable та перевірку розміщення корабля на GameGrid
+ * за правилами, де кораблі можуть і не можуть торкатися.
+ */
+public class PlacementTableTest {
+    /**
+     * Кількість розміщень і їх нумерація: спочатку горизонтальні, потім вертикальні.
+     */
+    @Test
+    public void countsAndIndexRoundTrip() {
+        PlacementTable table = PlacementTable.forSize(10, 10);
+        assertSame(table, PlacementTable.forRules(GameRules.CLASSIC));
+        PlacementTable.Placements four = table.forLength(4);
+        assertEquals(140, four.count());
+        assertEquals(100, table.forLength(1).count());
+        for(int p = 0; p < four.count(); p++) {
+            int start = four.getStartCell(p);
+            boolean horizontal = four.isHorizontal(p);
+            assertEquals(p, four.indexOf(start % 10, start / 10, horizontal));
+            assertEquals(horizontal ? 1 : 10, four.getStep(p));
+        }
+        assertEquals(-1, four.indexOf(7, 0, true));
+        assertEquals(-1, four.indexOf(0, 7, false));
+        assertEquals(-1, four.indexOf(-1, 0, true));
+        assertThrows(IllegalArgumentException.class, () -> table.forLength(11));
+    }
+
+    /**
+     * Маска палуб корабля, що перетинає межу слів BitBoard.
+     */
+    @Test
+    public void footprintAcrossWordBoundary() {
+        PlacementTable.Placements four = PlacementTable.forSize(10, 10).forLength(4);
+        int placement = four.indexOf(2, 6, true);
+        BitBoard board = new BitBoard(100);
+        four.addFootprint(placement, board);
+        assertEquals(4, board.cardinality());
+        for(int cell = 62; cell <= 65; cell++) {
+            assertTrue(board.get(cell));
+        }
+        BitBoard other = new BitBoard(100);
+        other.set(64);
+        assertTrue(four.footprintIntersects(placement, other));
+        assertEquals(1, four.countFootprintIn(placement, other));
+        other.clear(64);
+        other.set(66);
+        assertFalse(four.footprintIntersects(placement, other));
+        assertTrue(four.haloIntersects(placement, other));
+    }
+
+    /**
+     * Ореол корабля в кутку сітки не виходить за її межі.
+     */
+    @Test
+    public void haloStaysInsideGrid() {
+        PlacementTable table = PlacementTable.forSize(10, 10);
+        BitBoard lastCorner = new BitBoard(100);
+        table.forLength(1).addHalo(table.forLength(1).indexOf(9, 9, true), lastCorner);
+        assertEquals(4, lastCorner.cardinality());
+        assertTrue(lastCorner.get(88));
+        assertTrue(lastCorner.get(89));
+        assertTrue(lastCorner.get(98));
+        assertTrue(lastCorner.get(99));
+        BitBoard firstCorner = new BitBoard(100);
+        PlacementTable.Placements two = table.forLength(2);
+        two.addHalo(two.indexOf(0, 0, false), firstCorner);
+        assertEquals(6, firstCorner.cardinality());
+    }
+
+    /**
+     * Якщо кораблі не торкаються, місце поруч або по діагоналі з кораблем недійсне; якщо торкаються - дійсне.
+     * Перетин і вихід за межі сітки недійсні за будь-яких правил.
+     */
+    @Test
+    public void placementValidityWithAndWithoutTouching() {
+        int[] fleet = {3, 1};
+        GameGrid apart = new GameGrid(new GameRules(10, 10, fleet, false));
+        GameGrid touching = new GameGrid(new GameRules(10, 10, fleet, true));
+        apart.placeShips(0, 0, 3, true);
+        touching.placeShips(0, 0, 3, true);
+
+        assertFalse(apart.isValidShipPlacement(3, 0, 1, true));
+        assertTrue(touching.isValidShipPlacement(3, 0, 1, true));
+        assertFalse(apart.isValidShipPlacement(3, 1, 1, true));
+        assertTrue(touching.isValidShipPlacement(3, 1, 1, true));
+        assertFalse(apart.isValidShipPlacement(0, 1, 3, true));
+        assertTrue(touching.isValidShipPlacement(0, 1, 3, true));
+
+        for(GameGrid grid : new GameGrid[] {apart, touching}) {
+            assertFalse(grid.isValidShipPlacement(2, 0, 1, true));
+            assertFalse(grid.isValidShipPlacement(1, 0, 2, false));
+            assertTrue(grid.isValidShipPlacement(4, 0, 1, true));
+            assertTrue(grid.isValidShipPlacement(0, 2, 3, true));
+            assertFalse(grid.isValidShipPlacement(8, 5, 3, true));
+            assertFalse(grid.isValidShipPlacement(5, 8, 3, false));
+            assertFalse(grid.isValidShipPlacement(0, 5, 11, true));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас ShipTest
+ * Перевіряє палуби розміщеного корабля за готовими масками PlacementTable і облік влучень.
+ */
+public class ShipTest {
+    /**
+     * Розміщення кораблів довжини 4 на класичній сітці.
+     */
+    private static final PlacementTable.Placements FOUR = PlacementTable.forSize(10, 10).forLength(4);
+
+    /**
+     * Палуби горизонтального корабля, що перетинає межу слів BitBoard.
+     */
+    @Test
+    public void deckCellsAcrossWordBoundary() {
+        Ship ship = placed(2, 6, true);
+        for(int i = 0; i < 4; i++) {
+            assertEquals(62 + i, ship.getDeckCell(i));
+            assertEquals(i, ship.getDeckIndex(62 + i));
+        }
+        assertEquals(-1, ship.getDeckIndex(61));
+        assertEquals(-1, ship.getDeckIndex(66));
+        assertEquals(-1, ship.getDeckIndex(72));
+        BitBoard footprint = new BitBoard(100);
+        ship.addFootprint(footprint);
+        assertEquals(4, footprint.cardinality());
+        assertEquals(1L << 62 | 1L << 63, footprint.getWord(0));
+        assertEquals(3L, footprint.getWord(1));
+    }
+
+    /**
+     * Палуби вертикального корабля йдуть з кроком у ширину сітки.
+     */
+    @Test
+    public void verticalDeckCells() {
+        Ship ship = placed(9, 6, false);
+        assertEquals(69, ship.getDeckCell(0));
+        assertEquals(99, ship.getDeckCell(3));
+        assertEquals(2, ship.getDeckIndex(89));
+        assertEquals(-1, ship.getDeckIndex(70));
+        assertEquals(-1, ship.getDeckIndex(59));
+    }
+
+    /**
+     * Повторне влучення в палубу не рахується, а корабель знищено, коли влучили в кожну палубу.
+     */
+    @Test
+    public void registerHitCountsEachDeckOnce() {
+        Ship ship = placed(2, 6, true);
+        assertTrue(ship.registerHit(63));
+        assertFalse(ship.registerHit(63));
+        assertTrue(ship.isDeckHit(1));
+        assertFalse(ship.isDeckHit(0));
+        assertEquals(1, ship.getDestroyedDecks());
+        ship.registerHit(62);
+        ship.registerHit(64);
+        assertFalse(ship.shipDestroyed());
+        ship.registerHit(65);
+        assertTrue(ship.shipDestroyed());
+    }
+
+    /**
+     * Нерозміщений корабель, чуже розміщення і чужа клітинка відхиляються.
+     */
+    @Test
+    public void invalidUseIsRejected() {
+        Ship unplaced = new Ship(Coordinates.of(2, 6), 4, true);
+        assertFalse(unplaced.isPlaced());
+        assertThrows(IllegalStateException.class, () -> unplaced.getDeckCell(0));
+        assertThrows(IllegalArgumentException.class, () -> unplaced.setPlacement(FOUR, FOUR.indexOf(2, 6, false)));
+        assertThrows(IllegalArgumentException.class,
+                () -> unplaced.setPlacement(PlacementTable.forSize(10, 10).forLength(3), 0));
+        Ship ship = placed(2, 6, true);
+        assertThrows(IllegalArgumentException.class, () -> ship.registerHit(61));
+        ship.flipOrientation();
+        assertFalse(ship.isPlaced());
+    }
+
+    /**
+     * Створює корабель довжини 4 і розміщує його на класичній сітці.
+     *
+     * @param x Координата X першої палуби.
+     * @param y Координата Y першої палуби.
+     * @param horizontal True, якщо корабель горизонтальний.
+     * @return Розміщений корабель.
+     */
+    private static Ship placed(int x, int y, boolean horizontal) {
+        Ship ship = new Ship(Coordinates.of(x, y), 4, horizontal);
+        ship.setPlacement(FOUR, FOUR.indexOf(x, y, horizontal));
+        assertTrue(ship.isPlaced());
+        return ship;
+    }
+}
@@ -0,0 +1,61 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Морський бій
+ * Автор: Герасимчук Олександр
+ *
+ * Клас ShotOutcomeTest
+ * Перевіряє пакування результату пострілу в long і назад.
+ */
+public class ShotOutcomeTest {
+    /**
+     * Кожен результат пострілу проходить пакування і розпакування без змін.
+     */
+    @Test
+    public void packRoundTrip() {
+        for(GameGrid.ShotResult result : GameGrid.ShotResult.values()) {
+            int length = result.isSunk() ? 4 : 0;
+            long outcome = ShotOutcome.pack(99, result, length);
+            assertEquals(99, ShotOutcome.cell(outcome));
+            assertEquals(result, ShotOutcome.result(outcome));
+            assertEquals(length, ShotOutcome.sunkLength(outcome));
+        }
+        long large = ShotOutcome.pack(Integer.MAX_VALUE, GameGrid.ShotResult.SUNK, (1 << 24) - 1);
+        assertEquals(Integer.MAX_VALUE, ShotOutcome.cell(large));
+        assertEquals((1 << 24) - 1, ShotOutcome.sunkLength(large));
+    }
+
+    /**
+     * Довжина знищеного корабля має бути лише в записі знищення, а від'ємна клітинка недійсна.
+     */
+    @Test
+    public void invalidOutcomesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ShotOutcome.pack(0, GameGrid.ShotResult.SUNK, 0));
+        assertThrows(IllegalArgumentException.class, () -> ShotOutcome.pack(0, GameGrid.ShotResult.FLEET_DESTROYED, 1 << 24));
+        assertThrows(IllegalArgumentException.class, () -> ShotOutcome.pack(0, GameGrid.ShotResult.HIT, 2));
+        assertThrows(IllegalArgumentException.class, () -> ShotOutcome.pack(0, GameGrid.ShotResult.ALREADY_SHOT, 1));
+        assertThrows(IllegalArgumentException.class, () -> ShotOutcome.pack(-1, GameGrid.ShotResult.MISS, 0));
+    }
+
+    /**
+     * Запис пострілу по сітці бере довжину знищеного корабля з неї.
+     */
+    @Test
+    public void ofReadsSunkLengthFromGrid() {
+        GameGrid grid = new GameGrid(GameRules.CLASSIC);
+        grid.placeShips(2, 6, 2, true);
+        grid.placeShips(0, 0, 1, true);
+        int first = grid.cellIndex(2, 6);
+        GameGrid.ShotResult hit = grid.markCell(first);
+        assertEquals(0, ShotOutcome.sunkLength(ShotOutcome.of(grid, first, hit)));
+        long sunk = ShotOutcome.of(grid, Coordinates.of(3, 6), grid.markCoord(Coordinates.of(3, 6)));
+        assertEquals(GameGrid.ShotResult.SUNK, ShotOutcome.result(sunk));
+        assertEquals(grid.cellIndex(3, 6), ShotOutcome.cell(sunk));
+        assertEquals(2, ShotOutcome.sunkLength(sunk));
+        long again = ShotOutcome.of(grid, first, grid.markCell(first));
+        assertEquals(GameGrid.ShotResult.ALREADY_SHOT, ShotOutcome.result(again));
+        assertEquals(0, ShotOutcome.sunkLength(again));
+    }
+}